@@ -0,0 +1,57 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Annotations
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.javadoc;
+
+/**
+ * Javadoc compiled into a class, so that it can be read without file access and parsing.
+ * <p>
+ * Implementations are generated by the annotation processor of Spring Auto REST Docs and are
+ * found with {@link java.util.ServiceLoader}.
+ */
+public interface JavadocRegistry {
+
+    /**
+     * Passes the Javadoc of all classes in this registry to the registrar.
+     *
+     * @param registrar receives the Javadoc, class by class
+     */
+    void register(Registrar registrar);
+
+    /**
+     * Receives the Javadoc of a registry. Classes are identified by their binary name,
+     * e.g. {@code com.example.Outer$Inner}.
+     */
+    interface Registrar {
+        void classComment(String className, String comment);
+
+        void inheritanceResolved(String className);
+
+        void fieldComment(String className, String fieldName, String comment);
+
+        void fieldTag(String className, String fieldName, String tagName, String text);
+
+        void methodComment(String className, String methodName, String comment);
+
+        void methodParameterComment(String className, String methodName, String parameterName,
+                String comment);
+
+        void methodTag(String className, String methodName, String tagName, String text);
+    }
+}
@@ -19,8 +19,12 @@
  */
 package capital.scalable.restdocs.jackson;
 
+import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
+
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.restdocs.payload.FieldDescriptor;
@@ -44,4 +48,29 @@ public class FieldDescriptors {
     void setNoContentMessageKey(String noContentMessageKey) {
         this.noContentMessageKey = noContentMessageKey;
     }
+
+    /**
+     * @return a deep copy, so that cached field descriptors are not modified by their users
+     */
+    FieldDescriptors copy() {
+        FieldDescriptors copy = new FieldDescriptors();
+        map.forEach((path, descriptor) -> copy.map.put(path, copy(descriptor)));
+        copy.noContentMessageKey = noContentMessageKey;
+        return copy;
+    }
+
+    private static FieldDescriptor copy(FieldDescriptor descriptor) {
+        FieldDescriptor copy = fieldWithPath(descriptor.getPath())
+                .type(descriptor.getType())
+                .description(descriptor.getDescription());
+        if (descriptor.isOptional()) {
+            copy.optional();
+        }
+        if (descriptor.isIgnored()) {
+            copy.ignored();
+        }
+        descriptor.getAttributes().forEach((name, value) -> copy.getAttributes().put(name,
+                value instanceof List ? new ArrayList<>((List<?>) value) : value));
+        return copy;
+    }
 }
@@ -0,0 +1,174 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Core
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.jackson;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import capital.scalable.restdocs.constraints.ConstraintReader;
+import capital.scalable.restdocs.i18n.SnippetTranslationResolver;
+import capital.scalable.restdocs.javadoc.JavadocReader;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.ser.SerializerFactory;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.slf4j.Logger;
+
+/**
+ * Field descriptors generated by {@link FieldDocumentationGenerator}, shared by all operations
+ * of a test run.
+ * <p>
+ * Entries are keyed by the types and everything the generator depends on. The object mapper,
+ * its configuration and the readers are compared by identity, so a reconfigured object mapper or
+ * a new reader gets its own entries. {@link JacksonResultHandlers} therefore reuses the object
+ * mapper and constraint reader of previous calls with the same object mapper.
+ * <p>
+ * At most {@code org.springframework.restdocs.fieldDescriptorsCacheSize} entries are kept, the
+ * least recently used entry is removed first. Callers get a copy of the cached field descriptors,
+ * which they may modify.
+ */
+public class FieldDescriptorsCache {
+    private static final Logger log = getLogger(FieldDescriptorsCache.class);
+    private static final String PARALLEL_SUBTYPES_PROPERTY =
+            "org.springframework.restdocs.parallelSubtypes";
+    private static final String CACHE_SIZE_PROPERTY =
+            "org.springframework.restdocs.fieldDescriptorsCacheSize";
+    private static final int DEFAULT_CACHE_SIZE = 1000;
+
+    private static final FieldDescriptorsCache SHARED =
+            new FieldDescriptorsCache(Integer.getInteger(CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE));
+
+    private final Map<Key, FieldDescriptors> cache;
+
+    public FieldDescriptorsCache() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    FieldDescriptorsCache(int maxSize) {
+        this.cache = Collections.synchronizedMap(new LruMap<>(maxSize));
+    }
+
+    public static FieldDescriptorsCache shared() {
+        return SHARED;
+    }
+
+    public FieldDescriptors getOrGenerate(Type[] types, ObjectMapper objectMapper,
+            JavadocReader javadocReader, ConstraintReader constraintReader, TypeMapping typeMapping,
+            SnippetTranslationResolver translationResolver, JsonProperty.Access skipAccessor)
+            throws JsonMappingException {
+        List<JavaType> javaTypes = Arrays.stream(types)
+                .map(objectMapper.getTypeFactory()::constructType)
+                .collect(Collectors.toList());
+        Key key = new Key(javaTypes, objectMapper, javadocReader, constraintReader,
+                typeMapping.copy(), translationResolver, skipAccessor);
+        FieldDescriptors fieldDescriptors = cache.get(key);
+        if (fieldDescriptors != null) {
+            log.debug("Reusing field descriptors of {}", javaTypes);
+            return fieldDescriptors.copy();
+        }
+
+        FieldDocumentationGenerator generator = new FieldDocumentationGenerator(
+                objectMapper.writer(), objectMapper.getDeserializationConfig(), javadocReader,
+                constraintReader, typeMapping, translationResolver, skipAccessor,
+                Boolean.getBoolean(PARALLEL_SUBTYPES_PROPERTY));
+        fieldDescriptors = generator.generateDocumentation(types, objectMapper.getTypeFactory());
+        cache.putIfAbsent(key, fieldDescriptors);
+        return fieldDescriptors.copy();
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    void clear() {
+        cache.clear();
+    }
+
+    private static class Key {
+        private final List<JavaType> types;
+        private final ObjectMapper objectMapper;
+        private final SerializationConfig serializationConfig;
+        private final DeserializationConfig deserializationConfig;
+        private final SerializerFactory serializerFactory;
+        private final TypeFactory typeFactory;
+        private final JavadocReader javadocReader;
+        private final ConstraintReader constraintReader;
+        private final TypeMapping typeMapping;
+        private final SnippetTranslationResolver translationResolver;
+        private final JsonProperty.Access skipAccessor;
+
+        Key(List<JavaType> types, ObjectMapper objectMapper, JavadocReader javadocReader,
+                ConstraintReader constraintReader, TypeMapping typeMapping,
+                SnippetTranslationResolver translationResolver, JsonProperty.Access skipAccessor) {
+            this.types = types;
+            this.objectMapper = objectMapper;
+            // configuration changes and registered modules replace these instances
+            this.serializationConfig = objectMapper.getSerializationConfig();
+            this.deserializationConfig = objectMapper.getDeserializationConfig();
+            this.serializerFactory = objectMapper.getSerializerFactory();
+            this.typeFactory = objectMapper.getTypeFactory();
+            this.javadocReader = javadocReader;
+            this.constraintReader = constraintReader;
+            this.typeMapping = typeMapping;
+            this.translationResolver = translationResolver;
+            this.skipAccessor = skipAccessor;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key that = (Key) o;
+            return objectMapper == that.objectMapper
+                    && serializationConfig == that.serializationConfig
+                    && deserializationConfig == that.deserializationConfig
+                    && serializerFactory == that.serializerFactory
+                    && typeFactory == that.typeFactory
+                    && javadocReader == that.javadocReader
+                    && constraintReader == that.constraintReader
+                    && translationResolver == that.translationResolver
+                    && skipAccessor == that.skipAccessor
+                    && types.equals(that.types)
+                    && typeMapping.equals(that.typeMapping);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(types, System.identityHashCode(objectMapper),
+                    System.identityHashCode(javadocReader), System.identityHashCode(constraintReader),
+                    skipAccessor);
+        }
+    }
+}
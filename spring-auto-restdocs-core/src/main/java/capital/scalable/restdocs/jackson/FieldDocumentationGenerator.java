@@ -29,10 +29,14 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.Collectors;
 
 import capital.scalable.restdocs.constraints.ConstraintReader;
 import capital.scalable.restdocs.i18n.SnippetTranslationResolver;
+import capital.scalable.restdocs.jackson.FieldDocumentationVisitorContext.ResolvedField;
 import capital.scalable.restdocs.javadoc.JavadocReader;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.DeserializationConfig;
@@ -57,6 +61,7 @@ public class FieldDocumentationGenerator {
     private final TypeMapping typeMapping;
     private final SnippetTranslationResolver translationResolver;
     private final JsonProperty.Access skipAccessor;
+    private final boolean parallel;
 
     public FieldDocumentationGenerator(
             ObjectWriter writer,
@@ -66,6 +71,25 @@ public class FieldDocumentationGenerator {
             TypeMapping typeMapping,
             SnippetTranslationResolver translationResolver,
             JsonProperty.Access skipAccessor
+    ) {
+        this(writer, deserializationConfig, javadocReader, constraintReader, typeMapping,
+                translationResolver, skipAccessor, false);
+    }
+
+    /**
+     * @param parallel whether the subtypes of the documented types are visited in parallel on the
+     *                 common fork-join pool. The result is the same as without it, so the readers
+     *                 need to be thread-safe.
+     */
+    public FieldDocumentationGenerator(
+            ObjectWriter writer,
+            DeserializationConfig deserializationConfig,
+            JavadocReader javadocReader,
+            ConstraintReader constraintReader,
+            TypeMapping typeMapping,
+            SnippetTranslationResolver translationResolver,
+            JsonProperty.Access skipAccessor,
+            boolean parallel
     ) {
         this.writer = writer;
         this.deserializationConfig = deserializationConfig;
@@ -74,6 +98,7 @@ public class FieldDocumentationGenerator {
         this.typeMapping = typeMapping;
         this.translationResolver = translationResolver;
         this.skipAccessor = skipAccessor;
+        this.parallel = parallel;
     }
 
     public FieldDescriptors generateDocumentation(Type baseType, TypeFactory typeFactory)
@@ -89,23 +114,68 @@ public class FieldDocumentationGenerator {
                 .flatMap(Collection::stream)
                 .collect(Collectors.toList());
         FieldDescriptors result = new FieldDescriptors();
+        if (types.stream().anyMatch(type -> RESOURCES_TYPES.contains(type.getRawClass().getCanonicalName()))) {
+            result.setNoContentMessageKey("body-as-embedded-resources");
+        }
 
-        FieldDocumentationVisitorWrapper visitorWrapper = FieldDocumentationVisitorWrapper.create(
-                javadocReader, constraintReader, deserializationConfig,
-                new TypeRegistry(typeMapping, types), typeFactory, translationResolver, skipAccessor);
-
-        for (JavaType type : types) {
-            log.debug("(TOP) {}", type.getRawClass().getSimpleName());
-            if (RESOURCES_TYPES.contains(type.getRawClass().getCanonicalName())) {
-                result.setNoContentMessageKey("body-as-embedded-resources");
-                continue;
+        TypeRegistry typeRegistry = new TypeRegistry(typeMapping, types);
+        FieldDocumentationVisitorContext context = new FieldDocumentationVisitorContext(
+                javadocReader, constraintReader, deserializationConfig, translationResolver);
+        if (parallel && types.size() > 1) {
+            visitInParallel(types, typeRegistry, context, typeFactory);
+        } else {
+            FieldDocumentationVisitorWrapper visitorWrapper = new FieldDocumentationVisitorWrapper(
+                    context, "", null, typeRegistry, typeFactory, skipAccessor);
+            for (JavaType type : types) {
+                visit(type, visitorWrapper);
             }
-            writer.acceptJsonFormatVisitor(type, visitorWrapper);
         }
 
-        for (FieldDescriptor descriptor : visitorWrapper.getFields()) {
+        for (FieldDescriptor descriptor : context.getFields()) {
             result.putIfAbsent(descriptor.getPath(), descriptor);
         }
         return result;
     }
+
+    /**
+     * Visits each type with its own context and merges the fields in the order of the types,
+     * so that the result does not depend on which type is finished first.
+     */
+    private void visitInParallel(List<JavaType> types, TypeRegistry typeRegistry,
+            FieldDocumentationVisitorContext context, TypeFactory typeFactory)
+            throws JsonMappingException {
+        List<ForkJoinTask<List<ResolvedField>>> tasks = new ArrayList<>();
+        for (JavaType type : types) {
+            tasks.add(ForkJoinPool.commonPool().submit(() -> {
+                FieldDocumentationVisitorContext typeContext = context.recordingContext();
+                visit(type, new FieldDocumentationVisitorWrapper(typeContext, "", null,
+                        typeRegistry, typeFactory, skipAccessor));
+                return typeContext.getRecordedFields();
+            }));
+        }
+        for (ForkJoinTask<List<ResolvedField>> task : tasks) {
+            try {
+                context.mergeFields(task.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while documenting fields", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof JsonMappingException) {
+                    throw (JsonMappingException) e.getCause();
+                }
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException("Error while documenting fields", e.getCause());
+            }
+        }
+    }
+
+    private void visit(JavaType type, FieldDocumentationVisitorWrapper visitorWrapper)
+            throws JsonMappingException {
+        log.debug("(TOP) {}", type.getRawClass().getSimpleName());
+        if (!RESOURCES_TYPES.contains(type.getRawClass().getCanonicalName())) {
+            writer.acceptJsonFormatVisitor(type, visitorWrapper);
+        }
+    }
 }
@@ -26,6 +26,7 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
+import capital.scalable.restdocs.jackson.FieldDocumentationVisitorContext.PropertyKey;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.BeanProperty;
 import com.fasterxml.jackson.databind.JavaType;
@@ -128,13 +129,22 @@ class FieldDocumentationObjectVisitor extends JsonObjectFormatVisitor.Base {
         Class<?> javaBaseClass = prop.getMember().getDeclaringClass();
         boolean shouldExpand = shouldExpand(prop);
 
+        // subtypes inheriting this property add the same fields, so it is only visited once
+        PropertyKey key = new PropertyKey(fieldPath, javaBaseClass, fieldName, fieldType, required,
+                ser.getClass(), typeRegistry);
+        if (context.reuseProperty(key)) {
+            return;
+        }
+
         InternalFieldInfo fieldInfo = new InternalFieldInfo(javaBaseClass, fieldName, fieldType,
                 fieldPath, shouldExpand, required);
 
         JsonFormatVisitorWrapper visitor = new FieldDocumentationVisitorWrapper(getProvider(),
                 context, fieldPath, fieldInfo, typeRegistry, typeFactory, skipAccessor);
 
+        context.startProperty();
         ser.acceptJsonFormatVisitor(visitor, fieldType);
+        context.endProperty(key);
     }
 
     private boolean shouldExpand(BeanProperty prop) {
@@ -37,14 +37,22 @@ import static org.apache.commons.lang3.StringUtils.trimToEmpty;
 import static org.slf4j.LoggerFactory.getLogger;
 import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 import capital.scalable.restdocs.constraints.ConstraintReader;
 import capital.scalable.restdocs.i18n.SnippetTranslationResolver;
 import capital.scalable.restdocs.javadoc.JavadocReader;
 import com.fasterxml.jackson.databind.DeserializationConfig;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
 import org.slf4j.Logger;
 import org.springframework.restdocs.payload.FieldDescriptor;
 import org.springframework.restdocs.snippet.Attributes.Attribute;
@@ -52,54 +60,136 @@ import org.springframework.restdocs.snippet.Attributes.Attribute;
 class FieldDocumentationVisitorContext {
     private static final Logger log = getLogger(FieldDocumentationVisitorContext.class);
 
-    private final List<FieldDescriptor> fields = new ArrayList<>();
+    // field descriptors by path, in the order they were added
+    private final Map<String, FieldDescriptor> fields = new LinkedHashMap<>();
     private final JavadocReader javadocReader;
     private final ConstraintReader constraintReader;
     private final DeserializationConfig deserializationConfig;
     private final SnippetTranslationResolver translationResolver;
+    // resolved fields not merged yet, null if fields are merged when they are added
+    private final List<ResolvedField> recordedFields;
+    // fields added by visited properties, so that subtypes inheriting a property can reuse them
+    private final Map<PropertyKey, List<ResolvedField>> propertyFields = new HashMap<>();
+    private final Deque<List<ResolvedField>> visitedProperties = new ArrayDeque<>();
 
     public FieldDocumentationVisitorContext(JavadocReader javadocReader,
             ConstraintReader constraintReader,
             DeserializationConfig deserializationConfig,
             SnippetTranslationResolver translationResolver) {
+        this(javadocReader, constraintReader, deserializationConfig, translationResolver, null);
+    }
+
+    private FieldDocumentationVisitorContext(JavadocReader javadocReader,
+            ConstraintReader constraintReader,
+            DeserializationConfig deserializationConfig,
+            SnippetTranslationResolver translationResolver,
+            List<ResolvedField> recordedFields) {
         this.javadocReader = javadocReader;
         this.constraintReader = constraintReader;
         this.deserializationConfig = deserializationConfig;
         this.translationResolver = translationResolver;
+        this.recordedFields = recordedFields;
     }
 
-    public List<FieldDescriptor> getFields() {
-        return fields;
+    /**
+     * @return context with the same readers that only resolves the added fields, so that they can
+     * be merged into this context later with {@link #mergeFields(List)}
+     */
+    FieldDocumentationVisitorContext recordingContext() {
+        return new FieldDocumentationVisitorContext(javadocReader, constraintReader,
+                deserializationConfig, translationResolver, new ArrayList<>());
     }
 
-    public void addField(InternalFieldInfo info, String jsonType) {
-        String jsonFieldPath = info.getJsonFieldPath();
-        String javaFieldTypeName = info.getJavaFieldType().getRawClass().getSimpleName();
+    List<ResolvedField> getRecordedFields() {
+        return recordedFields;
+    }
+
+    void mergeFields(List<ResolvedField> resolvedFields) {
+        resolvedFields.forEach(this::mergeField);
+    }
+
+    public Collection<FieldDescriptor> getFields() {
+        return fields.values();
+    }
 
+    /**
+     * Adds the fields of a property visited before with the same key again, instead of visiting
+     * the property another time.
+     *
+     * @return whether the property was visited before
+     */
+    boolean reuseProperty(PropertyKey key) {
+        List<ResolvedField> fields = propertyFields.get(key);
+        if (fields == null) {
+            return false;
+        }
+        log.debug("({}) reusing fields of {}", key.path, key.javaBaseClass.getSimpleName());
+        fields.forEach(this::add);
+        return true;
+    }
+
+    /**
+     * Starts collecting the fields added while a property is visited.
+     */
+    void startProperty() {
+        visitedProperties.push(new ArrayList<>());
+    }
+
+    /**
+     * Remembers the fields added since the matching {@link #startProperty()} for
+     * {@link #reuseProperty(PropertyKey)}.
+     */
+    void endProperty(PropertyKey key) {
+        List<ResolvedField> fields = visitedProperties.pop();
+        propertyFields.putIfAbsent(key, fields);
+        if (!visitedProperties.isEmpty()) {
+            visitedProperties.peek().addAll(fields);
+        }
+    }
+
+    public void addField(InternalFieldInfo info, String jsonType) {
         Class<?> javaBaseClass = info.getJavaBaseClass();
         String javaFieldName = info.getJavaFieldName();
         String comment = resolveComment(javaBaseClass, javaFieldName);
         comment = join("<br>", comment, resolveSeeTag(javaBaseClass, javaFieldName));
 
-        List<String> constraints = constraintAttribute(javaBaseClass, javaFieldName);
-        List<String> optionals = optionalAttribute(javaBaseClass, javaFieldName, info.isRequired());
-        DeprecatedAttribute deprecated = deprecatedAttribute(javaBaseClass, javaFieldName);
+        add(new ResolvedField(info, jsonType, comment,
+                constraintAttribute(javaBaseClass, javaFieldName),
+                optionalAttribute(javaBaseClass, javaFieldName, info.isRequired()),
+                deprecatedAttribute(javaBaseClass, javaFieldName)));
+    }
+
+    private void add(ResolvedField field) {
+        if (!visitedProperties.isEmpty()) {
+            visitedProperties.peek().add(field);
+        }
+        if (recordedFields != null) {
+            recordedFields.add(field);
+        } else {
+            mergeField(field);
+        }
+    }
+
+    private void mergeField(ResolvedField field) {
+        String jsonFieldPath = field.info.getJsonFieldPath();
+        String javaFieldTypeName = field.info.getJavaFieldType().getRawClass().getSimpleName();
+        Class<?> javaBaseClass = field.info.getJavaBaseClass();
 
         // in case of repeated field in subclass or subtype, let's just add info to already existing field descriptor
-        FieldDescriptor descriptor = getOrCreate(jsonFieldPath, jsonType, javaFieldTypeName);
+        FieldDescriptor descriptor = getOrCreate(jsonFieldPath, field.jsonType, javaFieldTypeName);
 
         if (javaBaseClass.equals(descriptor.getAttributes().get(TYPE_ATTRIBUTE))) {
             return; // exactly the same field, skip
         }
 
         String updatedComment = joinWithTypeSpecifier(javaBaseClass,
-                (String) descriptor.getDescription(), comment);
+                (String) descriptor.getDescription(), field.comment);
         List<String> updatedConstraints = joinWithTypeSpecifier(javaBaseClass,
-                (List<String>) descriptor.getAttributes().get(CONSTRAINTS_ATTRIBUTE), constraints);
+                (List<String>) descriptor.getAttributes().get(CONSTRAINTS_ATTRIBUTE), field.constraints);
         List<String> updatedOptionals = joinWithTypeSpecifier(javaBaseClass,
-                (List<String>) descriptor.getAttributes().get(OPTIONAL_ATTRIBUTE), optionals);
+                (List<String>) descriptor.getAttributes().get(OPTIONAL_ATTRIBUTE), field.optionals);
         DeprecatedAttribute updatedDeprecated = joinWithTypeSpecifier(javaBaseClass,
-                (DeprecatedAttribute) descriptor.getAttributes().get(DEPRECATED_ATTRIBUTE), deprecated);
+                (DeprecatedAttribute) descriptor.getAttributes().get(DEPRECATED_ATTRIBUTE), field.deprecated);
 
         descriptor
                 .description(updatedComment)
@@ -109,9 +199,7 @@ class FieldDocumentationVisitorContext {
                         new Attribute(OPTIONAL_ATTRIBUTE, updatedOptionals),
                         new Attribute(DEPRECATED_ATTRIBUTE, updatedDeprecated));
 
-        if (!fields.contains(descriptor.getPath())) {
-            fields.add(descriptor);
-        }
+        fields.putIfAbsent(jsonFieldPath, descriptor);
 
         log.debug("({}) {} added", jsonFieldPath, javaFieldTypeName);
     }
@@ -165,17 +253,13 @@ class FieldDocumentationVisitorContext {
     }
 
     private FieldDescriptor getOrCreate(String jsonFieldPath, String jsonType, String javaFieldTypeName) {
-        log.trace(" = WAS ADDED? {}", jsonFieldPath);
-        for (FieldDescriptor descriptor : fields) {
-            if (jsonFieldPath.equals(descriptor.getPath())) {
-                log.trace("   = YES {}", descriptor.getPath());
-                log.debug("({}) {} NOT added", jsonFieldPath, javaFieldTypeName);
-                if (!descriptor.getType().equals(jsonType)) {
-                    log.warn("Multiple fields with the same path {} but different types!", jsonFieldPath);
-                }
-                return descriptor;
+        FieldDescriptor descriptor = fields.get(jsonFieldPath);
+        if (descriptor != null) {
+            log.debug("({}) {} NOT added", jsonFieldPath, javaFieldTypeName);
+            if (!descriptor.getType().equals(jsonType)) {
+                log.warn("Multiple fields with the same path {} but different types!", jsonFieldPath);
             }
-            log.trace("   = NO {}", descriptor.getPath());
+            return descriptor;
         }
         return fieldWithPath(jsonFieldPath)
                 .type(jsonType);
@@ -290,4 +374,74 @@ class FieldDocumentationVisitorContext {
         }
         return comment;
     }
+
+    /**
+     * Documentation of a field resolved from Javadoc and constraints, before it is merged with
+     * the documentation of other fields with the same path.
+     */
+    static class ResolvedField {
+        private final InternalFieldInfo info;
+        private final String jsonType;
+        private final String comment;
+        private final List<String> constraints;
+        private final List<String> optionals;
+        private final DeprecatedAttribute deprecated;
+
+        ResolvedField(InternalFieldInfo info, String jsonType, String comment,
+                List<String> constraints, List<String> optionals, DeprecatedAttribute deprecated) {
+            this.info = info;
+            this.jsonType = jsonType;
+            this.comment = comment;
+            this.constraints = constraints;
+            this.optionals = optionals;
+            this.deprecated = deprecated;
+        }
+    }
+
+    /**
+     * Property visited at a path. Subtypes visiting a property they inherit use the same key,
+     * as long as they see the same visited types.
+     */
+    static class PropertyKey {
+        private final String path;
+        private final Class<?> javaBaseClass;
+        private final String javaFieldName;
+        private final JavaType javaFieldType;
+        private final boolean required;
+        private final Class<?> serializerClass;
+        private final TypeRegistry typeRegistry;
+
+        PropertyKey(String path, Class<?> javaBaseClass, String javaFieldName,
+                JavaType javaFieldType, boolean required, Class<?> serializerClass,
+                TypeRegistry typeRegistry) {
+            this.path = path;
+            this.javaBaseClass = javaBaseClass;
+            this.javaFieldName = javaFieldName;
+            this.javaFieldType = javaFieldType;
+            this.required = required;
+            this.serializerClass = serializerClass;
+            this.typeRegistry = typeRegistry;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PropertyKey)) {
+                return false;
+            }
+            PropertyKey that = (PropertyKey) o;
+            return required == that.required && typeRegistry == that.typeRegistry
+                    && path.equals(that.path) && javaBaseClass.equals(that.javaBaseClass)
+                    && javaFieldName.equals(that.javaFieldName)
+                    && javaFieldType.equals(that.javaFieldType)
+                    && serializerClass.equals(that.serializerClass);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, javaBaseClass, javaFieldName, javaFieldType, required);
+        }
+    }
 }
@@ -23,6 +23,7 @@ import static capital.scalable.restdocs.util.TypeUtil.determineArrayOfType;
 import static capital.scalable.restdocs.util.TypeUtil.resolveAllTypes;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import java.util.Collection;
 import java.util.List;
 
 import capital.scalable.restdocs.constraints.ConstraintReader;
@@ -167,7 +168,7 @@ class FieldDocumentationVisitorWrapper implements JsonFormatVisitorWrapper {
         return new JsonMapFormatVisitor.Base(provider);
     }
 
-    public List<FieldDescriptor> getFields() {
+    public Collection<FieldDescriptor> getFields() {
         return context.getFields();
     }
 
@@ -26,12 +26,23 @@ import static capital.scalable.restdocs.OperationAttributeHelper.setJavadocReade
 import static capital.scalable.restdocs.OperationAttributeHelper.setObjectMapper;
 import static capital.scalable.restdocs.OperationAttributeHelper.setTypeMapping;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import capital.scalable.restdocs.constraints.ConstraintReader;
 import capital.scalable.restdocs.constraints.ConstraintReaderImpl;
 import capital.scalable.restdocs.constraints.DynamicResourceBundleConstraintDescriptionResolver;
 import capital.scalable.restdocs.i18n.SnippetTranslationManager;
 import capital.scalable.restdocs.i18n.SnippetTranslationResolver;
 import capital.scalable.restdocs.javadoc.JavadocReaderImpl;
+import com.fasterxml.jackson.databind.DeserializationConfig;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.ser.SerializerFactory;
+import com.fasterxml.jackson.databind.type.TypeFactory;
 import org.springframework.restdocs.constraints.ConstraintDescriptionResolver;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultHandler;
@@ -41,21 +52,18 @@ public abstract class JacksonResultHandlers {
 
     public static ResultHandler prepareJackson(ObjectMapper objectMapper) {
         return new JacksonPreparingResultHandler(objectMapper, new TypeMapping(),
-                SnippetTranslationManager.getDefaultResolver(),
-                new DynamicResourceBundleConstraintDescriptionResolver());
+                SnippetTranslationManager.getDefaultResolver(), null);
     }
 
     public static ResultHandler prepareJackson(ObjectMapper objectMapper,
             SnippetTranslationResolver translationResolver) {
         return new JacksonPreparingResultHandler(objectMapper, new TypeMapping(),
-                translationResolver,
-                new DynamicResourceBundleConstraintDescriptionResolver());
+                translationResolver, null);
     }
 
     public static ResultHandler prepareJackson(ObjectMapper objectMapper, TypeMapping typeMapping) {
         return new JacksonPreparingResultHandler(objectMapper, typeMapping,
-                SnippetTranslationManager.getDefaultResolver(),
-                new DynamicResourceBundleConstraintDescriptionResolver());
+                SnippetTranslationManager.getDefaultResolver(), null);
     }
 
     public static ResultHandler prepareJackson(ObjectMapper objectMapper,
@@ -67,7 +75,7 @@ public abstract class JacksonResultHandlers {
     public static ResultHandler prepareJackson(ObjectMapper objectMapper, TypeMapping typeMapping,
             SnippetTranslationResolver translationResolver) {
         return new JacksonPreparingResultHandler(objectMapper, typeMapping,
-                translationResolver, new DynamicResourceBundleConstraintDescriptionResolver());
+                translationResolver, null);
     }
 
     public static ResultHandler prepareJackson(ObjectMapper objectMapper,
@@ -90,20 +98,85 @@ public abstract class JacksonResultHandlers {
                 translationResolver, constraintDescriptionResolver);
     }
 
+    /**
+     * Object mappers and constraint readers of previous calls, keyed by the object mapper,
+     * translation resolver and constraint description resolver they were created for.
+     * Result handlers are usually created per test, and reusing them lets the field descriptors
+     * of previous tests be reused from the {@link FieldDescriptorsCache}.
+     */
+    private static final Map<List<Object>, PreparedObjectMapper> preparedObjectMappers =
+            Collections.synchronizedMap(new LruMap<>(16));
+
+    /**
+     * @param constraintDescriptionResolver {@code null} for the default resolver
+     */
+    private static PreparedObjectMapper prepare(ObjectMapper objectMapper,
+            SnippetTranslationResolver translationResolver,
+            ConstraintDescriptionResolver constraintDescriptionResolver) {
+        // the default resolver reads the descriptions of the default locale
+        List<Object> key = Arrays.asList(objectMapper, translationResolver,
+                constraintDescriptionResolver != null
+                        ? constraintDescriptionResolver : Locale.getDefault());
+        synchronized (preparedObjectMappers) {
+            PreparedObjectMapper prepared = preparedObjectMappers.get(key);
+            if (prepared == null || prepared.isModified(objectMapper)) {
+                prepared = new PreparedObjectMapper(objectMapper, translationResolver,
+                        constraintDescriptionResolver != null ? constraintDescriptionResolver
+                                : new DynamicResourceBundleConstraintDescriptionResolver());
+                preparedObjectMappers.put(key, prepared);
+            }
+            return prepared;
+        }
+    }
+
+    /**
+     * Object mapper and constraint reader created for an object mapper, together with the
+     * configuration of the object mapper at that time.
+     */
+    private static class PreparedObjectMapper {
+        private final ObjectMapper objectMapper;
+        private final ConstraintReader constraintReader;
+        // configuration changes and registered modules replace these instances
+        private final SerializationConfig serializationConfig;
+        private final DeserializationConfig deserializationConfig;
+        private final SerializerFactory serializerFactory;
+        private final TypeFactory typeFactory;
+
+        PreparedObjectMapper(ObjectMapper objectMapper,
+                SnippetTranslationResolver translationResolver,
+                ConstraintDescriptionResolver constraintDescriptionResolver) {
+            this.objectMapper = new SardObjectMapper(objectMapper);
+            this.constraintReader = ConstraintReaderImpl.create(this.objectMapper,
+                    translationResolver, constraintDescriptionResolver);
+            this.serializationConfig = objectMapper.getSerializationConfig();
+            this.deserializationConfig = objectMapper.getDeserializationConfig();
+            this.serializerFactory = objectMapper.getSerializerFactory();
+            this.typeFactory = objectMapper.getTypeFactory();
+        }
+
+        boolean isModified(ObjectMapper objectMapper) {
+            return serializationConfig != objectMapper.getSerializationConfig()
+                    || deserializationConfig != objectMapper.getDeserializationConfig()
+                    || serializerFactory != objectMapper.getSerializerFactory()
+                    || typeFactory != objectMapper.getTypeFactory();
+        }
+    }
+
     private static class JacksonPreparingResultHandler implements ResultHandler {
 
         private final ObjectMapper objectMapper;
         private final TypeMapping typeMapping;
-        private final SnippetTranslationResolver translationResolver;
-        private final ConstraintDescriptionResolver constraintDescriptionResolver;
+        // shared by all requests, so that their field descriptors can be cached
+        private final ConstraintReader constraintReader;
 
         public JacksonPreparingResultHandler(ObjectMapper objectMapper, TypeMapping typeMapping,
                 SnippetTranslationResolver translationResolver,
                 ConstraintDescriptionResolver constraintDescriptionResolver) {
-            this.objectMapper = new SardObjectMapper(objectMapper);
+            PreparedObjectMapper prepared =
+                    prepare(objectMapper, translationResolver, constraintDescriptionResolver);
+            this.objectMapper = prepared.objectMapper;
             this.typeMapping = typeMapping;
-            this.translationResolver = translationResolver;
-            this.constraintDescriptionResolver = constraintDescriptionResolver;
+            this.constraintReader = prepared.constraintReader;
         }
 
         @Override
@@ -116,8 +189,7 @@ public abstract class JacksonResultHandlers {
             setObjectMapper(result.getRequest(), objectMapper);
             initRequestPattern(result.getRequest());
             setJavadocReader(result.getRequest(), JavadocReaderImpl.createWithSystemProperty());
-            setConstraintReader(result.getRequest(),
-                    ConstraintReaderImpl.create(objectMapper, translationResolver, constraintDescriptionResolver));
+            setConstraintReader(result.getRequest(), constraintReader);
             setTypeMapping(result.getRequest(), typeMapping);
         }
     }
@@ -0,0 +1,178 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Core
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.jackson;
+
+import java.util.Arrays;
+
+/**
+ * Immutable hash set that shares its structure with the set it was created from.
+ * <p>
+ * The elements are stored in a hash array mapped trie using 5 bits of the hash code per level,
+ * so looking up an element visits at most 7 levels independent of the size of the set, and
+ * adding an element only copies the nodes on the path to it.
+ */
+final class PersistentSet<E> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final PersistentSet<?> EMPTY =
+            new PersistentSet<>(new BitmapNode(0, new Object[0]));
+
+    private final Node root;
+
+    private PersistentSet(Node root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <E> PersistentSet<E> empty() {
+        return (PersistentSet<E>) EMPTY;
+    }
+
+    boolean contains(E element) {
+        return root.contains(element, element.hashCode(), 0);
+    }
+
+    /**
+     * @return set with the given element, or this set if it already contains the element
+     */
+    PersistentSet<E> with(E element) {
+        Node updated = root.with(element, element.hashCode(), 0);
+        return updated == root ? this : new PersistentSet<>(updated);
+    }
+
+    private interface Node {
+        boolean contains(Object element, int hash, int shift);
+
+        Node with(Object element, int hash, int shift);
+    }
+
+    /**
+     * Node holding an element or a child node for every bit set in the bitmap.
+     */
+    private static final class BitmapNode implements Node {
+        private final int bitmap;
+        private final Object[] entries;
+
+        BitmapNode(int bitmap, Object[] entries) {
+            this.bitmap = bitmap;
+            this.entries = entries;
+        }
+
+        @Override
+        public boolean contains(Object element, int hash, int shift) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return false;
+            }
+            Object entry = entries[index(bit)];
+            if (entry instanceof Node) {
+                return ((Node) entry).contains(element, hash, shift + BITS);
+            }
+            return entry.equals(element);
+        }
+
+        @Override
+        public Node with(Object element, int hash, int shift) {
+            int bit = bit(hash, shift);
+            int index = index(bit);
+            if ((bitmap & bit) == 0) {
+                Object[] updated = new Object[entries.length + 1];
+                System.arraycopy(entries, 0, updated, 0, index);
+                updated[index] = element;
+                System.arraycopy(entries, index, updated, index + 1, entries.length - index);
+                return new BitmapNode(bitmap | bit, updated);
+            }
+            Object entry = entries[index];
+            Object updatedEntry;
+            if (entry instanceof Node) {
+                updatedEntry = ((Node) entry).with(element, hash, shift + BITS);
+            } else if (entry.equals(element)) {
+                return this;
+            } else {
+                updatedEntry = node(entry, entry.hashCode(), element, hash, shift + BITS);
+            }
+            if (updatedEntry == entry) {
+                return this;
+            }
+            Object[] updated = entries.clone();
+            updated[index] = updatedEntry;
+            return new BitmapNode(bitmap, updated);
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        private static int bit(int hash, int shift) {
+            return 1 << position(hash, shift);
+        }
+
+        private static int position(int hash, int shift) {
+            return (hash >>> shift) & MASK;
+        }
+
+        private static Node node(Object first, int firstHash, Object second, int secondHash,
+                int shift) {
+            if (shift >= Integer.SIZE) {
+                return new CollisionNode(new Object[]{first, second});
+            }
+            int firstBit = bit(firstHash, shift);
+            int secondBit = bit(secondHash, shift);
+            if (firstBit == secondBit) {
+                return new BitmapNode(firstBit, new Object[]{
+                        node(first, firstHash, second, secondHash, shift + BITS)});
+            }
+            Object[] entries = position(firstHash, shift) < position(secondHash, shift)
+                    ? new Object[]{first, second} : new Object[]{second, first};
+            return new BitmapNode(firstBit | secondBit, entries);
+        }
+    }
+
+    /**
+     * Node holding elements with the same hash code.
+     */
+    private static final class CollisionNode implements Node {
+        private final Object[] elements;
+
+        CollisionNode(Object[] elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public boolean contains(Object element, int hash, int shift) {
+            for (Object candidate : elements) {
+                if (candidate.equals(element)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Node with(Object element, int hash, int shift) {
+            if (contains(element, hash, shift)) {
+                return this;
+            }
+            Object[] updated = Arrays.copyOf(elements, elements.length + 1);
+            updated[elements.length] = element;
+            return new CollisionNode(updated);
+        }
+    }
+}
@@ -25,6 +25,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 public class TypeMapping {
     private Map<Class<?>, List<Class<?>>> map = new HashMap<>();
@@ -37,4 +38,26 @@ public class TypeMapping {
         map.put(superClazz, Arrays.asList(subclasses));
         return this;
     }
+
+    TypeMapping copy() {
+        TypeMapping copy = new TypeMapping();
+        copy.map.putAll(map);
+        return copy;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Objects.equals(map, ((TypeMapping) o).map);
+    }
+
+    @Override
+    public int hashCode() {
+        return map.hashCode();
+    }
 }
@@ -19,49 +19,61 @@
  */
 package capital.scalable.restdocs.jackson;
 
+import static java.util.Collections.singletonList;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
 
 import com.fasterxml.jackson.databind.JavaType;
 import org.slf4j.Logger;
 
+/**
+ * Raw classes of the types visited on the way to the current path. The classes are kept in a
+ * {@link PersistentSet}, so a nested level shares the classes visited so far with the levels
+ * above it, only adds the classes not visited yet, and looks classes up in constant time
+ * independent of the depth. Sibling paths, which may be visited in parallel, do not see each
+ * other's classes.
+ */
 class TypeRegistry {
     private static final Logger log = getLogger(TypeRegistry.class);
 
-    private final Set<JavaType> visited;
+    private final PersistentSet<Class<?>> visited;
     private final TypeMapping mapping;
 
     public TypeRegistry(TypeMapping mapping, JavaType baseType) {
-        this.mapping = mapping;
-        visited = new HashSet<>();
-        visited.add(baseType);
-
+        this(mapping, singletonList(baseType));
     }
 
     public TypeRegistry(TypeMapping mapping, Collection<JavaType> visited) {
+        this(mapping, withRawClasses(PersistentSet.empty(), visited));
+    }
+
+    private TypeRegistry(TypeMapping mapping, PersistentSet<Class<?>> visited) {
         this.mapping = mapping;
-        this.visited = new HashSet<>();
-        this.visited.addAll(visited);
+        this.visited = visited;
+    }
+
+    /**
+     * @return registry with the given types, or this registry if all of them were visited already
+     */
+    public TypeRegistry withVisitedTypes(Collection<JavaType> javaTypes) {
+        PersistentSet<Class<?>> updated = withRawClasses(visited, javaTypes);
+        return updated == visited ? this : new TypeRegistry(mapping, updated);
     }
 
-    public TypeRegistry withVisitedTypes(List<JavaType> javaTypes) {
-        Set<JavaType> result = new HashSet<>(visited);
-        result.addAll(javaTypes);
-        return new TypeRegistry(mapping, result);
+    private static PersistentSet<Class<?>> withRawClasses(PersistentSet<Class<?>> visited,
+            Collection<JavaType> javaTypes) {
+        for (JavaType type : javaTypes) {
+            visited = visited.with(type.getRawClass());
+        }
+        return visited;
     }
 
     public boolean wasVisited(JavaType type) {
-        log.trace(" - WAS VISITED? {}", type.getRawClass().getSimpleName());
-        for (JavaType t : visited) {
-            if (t.getRawClass().equals(type.getRawClass())) {
-                log.trace("   - YES {}", t.getRawClass().getSimpleName());
-                return true;
-            }
-            log.trace("   - NO {}", t.getRawClass().getSimpleName());
+        Class<?> rawClass = type.getRawClass();
+        if (visited.contains(rawClass)) {
+            log.trace(" - WAS VISITED {}", rawClass.getSimpleName());
+            return true;
         }
         return false;
     }
@@ -24,17 +24,43 @@ import static org.apache.commons.lang3.StringUtils.trimToEmpty;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
+
+/**
+ * Javadoc of a class as written by the doclets.
+ * <p>
+ * Files written in the compact format use single letter keys and leave out empty values.
+ * Both formats are read with the same classes, so they can be mixed.
+ */
 class ClassJavadoc {
+    /**
+     * Javadoc of classes without documentation.
+     */
+    static final ClassJavadoc EMPTY = new ClassJavadoc();
+
+    @JsonAlias("c")
     private String comment;
+    @JsonAlias("i")
+    private boolean inheritanceResolved;
+    @JsonAlias("f")
     private Map<String, FieldJavadoc> fields = new HashMap<>();
+    @JsonAlias("m")
     private Map<String, MethodJavadoc> methods = new HashMap<>();
 
     public String getClassComment() {
         return comment;
     }
 
+    /**
+     * @return whether the methods already contain the comments inherited from all super classes
+     * and interfaces, so that the class hierarchy does not need to be walked
+     */
+    boolean isInheritanceResolved() {
+        return inheritanceResolved;
+    }
+
     public String getFieldComment(String fieldName) {
-        FieldJavadoc fieldJavadoc = fields.get(fieldName);
+        FieldJavadoc fieldJavadoc = getField(fieldName);
         if (fieldJavadoc != null) {
             return trimToEmpty(fieldJavadoc.getComment());
         } else {
@@ -43,7 +69,7 @@ class ClassJavadoc {
     }
 
     public String getMethodComment(String methodName) {
-        MethodJavadoc methodJavadoc = methods.get(methodName);
+        MethodJavadoc methodJavadoc = getMethod(methodName);
         if (methodJavadoc != null) {
             return trimToEmpty(methodJavadoc.getComment());
         } else {
@@ -52,7 +78,7 @@ class ClassJavadoc {
     }
 
     public String getMethodParameterComment(String methodName, String parameterName) {
-        MethodJavadoc methodJavadoc = methods.get(methodName);
+        MethodJavadoc methodJavadoc = getMethod(methodName);
         if (methodJavadoc != null) {
             return trimToEmpty(methodJavadoc.getParameterComment(parameterName));
         } else {
@@ -61,7 +87,7 @@ class ClassJavadoc {
     }
 
     public String getMethodTag(String javaMethodName, String tagName) {
-        MethodJavadoc methodJavadoc = methods.get(javaMethodName);
+        MethodJavadoc methodJavadoc = getMethod(javaMethodName);
         if (methodJavadoc != null) {
             return trimToEmpty(methodJavadoc.getTag(tagName));
         } else {
@@ -70,7 +96,7 @@ class ClassJavadoc {
     }
 
     public String getFieldTag(String javaFieldName, String tagName) {
-        FieldJavadoc fieldJavadoc = fields.get(javaFieldName);
+        FieldJavadoc fieldJavadoc = getField(javaFieldName);
         if (fieldJavadoc != null) {
             return trimToEmpty(fieldJavadoc.getTag(tagName));
         } else {
@@ -78,9 +104,48 @@ class ClassJavadoc {
         }
     }
 
+    /**
+     * Replaces the maps of the deserialized Javadoc with compact maps and pools all strings.
+     *
+     * @return this Javadoc
+     */
+    ClassJavadoc compact(StringPool pool) {
+        comment = pool.intern(comment);
+        fields = SortedArrayMap.copyOf(fields, pool, field -> field.compact(pool));
+        methods = SortedArrayMap.copyOf(methods, pool, method -> method.compact(pool));
+        return this;
+    }
+
+    FieldJavadoc getField(String fieldName) {
+        return fields.get(fieldName);
+    }
+
+    MethodJavadoc getMethod(String methodName) {
+        return methods.get(methodName);
+    }
+
+    void setClassComment(String comment) {
+        this.comment = comment;
+    }
+
+    void setInheritanceResolved() {
+        this.inheritanceResolved = true;
+    }
+
+    FieldJavadoc field(String fieldName) {
+        return fields.computeIfAbsent(fieldName, name -> new FieldJavadoc());
+    }
+
+    MethodJavadoc method(String methodName) {
+        return methods.computeIfAbsent(methodName, name -> new MethodJavadoc());
+    }
+
     static class MethodJavadoc {
+        @JsonAlias("c")
         private String comment;
+        @JsonAlias("p")
         private Map<String, String> parameters = new HashMap<>();
+        @JsonAlias("t")
         private Map<String, String> tags = new HashMap<>();
 
         public String getComment() {
@@ -94,10 +159,31 @@ class ClassJavadoc {
         public String getTag(String tagName) {
             return tags.get(tagName);
         }
+
+        void setComment(String comment) {
+            this.comment = comment;
+        }
+
+        void putParameterComment(String parameterName, String comment) {
+            parameters.put(parameterName, comment);
+        }
+
+        void putTag(String tagName, String text) {
+            tags.put(tagName, text);
+        }
+
+        MethodJavadoc compact(StringPool pool) {
+            comment = pool.intern(comment);
+            parameters = SortedArrayMap.copyOf(parameters, pool, pool::intern);
+            tags = SortedArrayMap.copyOf(tags, pool, pool::intern);
+            return this;
+        }
     }
 
     static class FieldJavadoc {
+        @JsonAlias("c")
         private String comment;
+        @JsonAlias("t")
         private Map<String, String> tags = new HashMap<>();
 
         public String getComment() {
@@ -107,5 +193,19 @@ class ClassJavadoc {
         public String getTag(String tagName) {
             return tags.get(tagName);
         }
+
+        void setComment(String comment) {
+            this.comment = comment;
+        }
+
+        void putTag(String tagName, String text) {
+            tags.put(tagName, text);
+        }
+
+        FieldJavadoc compact(StringPool pool) {
+            comment = pool.intern(comment);
+            tags = SortedArrayMap.copyOf(tags, pool, pool::intern);
+            return this;
+        }
     }
 }
@@ -0,0 +1,202 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Core
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.javadoc;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.util.StreamUtils;
+
+/**
+ * Memory-mapped Javadoc index file containing the JSON documentation of many classes.
+ * <p>
+ * The file is written by the JSON doclets and the Dokka extension as an alternative to one
+ * JSON file per class and has the following layout (all integers are big-endian):
+ * <pre>
+ * int magic ("SARD")
+ * int version
+ * int slot count (power of two)
+ * slot count * (int key hash, int key offset, int key length, int value offset, int value length)
+ * keys and values as UTF-8
+ * </pre>
+ * The slots form an open addressing hash table with linear probing over
+ * {@link String#hashCode()} of the key. The key is the relative path of the class JSON file with
+ * "/" as separator, e.g. {@code capital/scalable/Foo.Bar.json}. Empty slots have a key length
+ * of zero.
+ * <p>
+ * The header and all slots are validated when the file is opened, so that a truncated or
+ * otherwise corrupt file, e.g. of an interrupted doclet run, is rejected with an
+ * {@link IOException} instead of failing later lookups.
+ */
+class JavadocIndex {
+    static final String FILE_NAME = "auto-restdocs-javadoc.idx";
+
+    private static final int MAGIC = 0x53415244;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+    private static final int SLOT_SIZE = 20;
+
+    private final File file;
+    private final long lastModified;
+    private final ByteBuffer buffer;
+    private final int slotCount;
+
+    private JavadocIndex(File file, long lastModified, ByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.lastModified = lastModified;
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_SIZE
+                || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported Javadoc index file format");
+        }
+        this.slotCount = buffer.getInt(8);
+        validate();
+    }
+
+    private void validate() throws IOException {
+        if (slotCount <= 0 || Integer.bitCount(slotCount) != 1) {
+            throw new IOException("Invalid slot count " + slotCount + " in Javadoc index file");
+        }
+        long dataOffset = HEADER_SIZE + (long) slotCount * SLOT_SIZE;
+        if (dataOffset > buffer.limit()) {
+            throw new IOException("Truncated Javadoc index file, expected " + slotCount
+                    + " slots but the file has " + buffer.limit() + " bytes");
+        }
+        for (int i = 0; i < slotCount; i++) {
+            int slot = HEADER_SIZE + i * SLOT_SIZE;
+            int keyLength = buffer.getInt(slot + 8);
+            if (keyLength != 0) {
+                checkRange(dataOffset, buffer.getInt(slot + 4), keyLength);
+                checkRange(dataOffset, buffer.getInt(slot + 12), buffer.getInt(slot + 16));
+            }
+        }
+    }
+
+    private void checkRange(long dataOffset, int offset, int length) throws IOException {
+        if (offset < dataOffset || length < 0 || (long) offset + length > buffer.limit()) {
+            throw new IOException("Truncated Javadoc index file, entry at " + offset
+                    + " with " + length + " bytes exceeds the file of " + buffer.limit()
+                    + " bytes");
+        }
+    }
+
+    /**
+     * Maps the index file in the given directory.
+     *
+     * @return the index or {@code null} if the directory contains no index file
+     */
+    static JavadocIndex open(File dir) throws IOException {
+        File file = new File(dir, FILE_NAME);
+        if (!file.isFile()) {
+            return null;
+        }
+        long lastModified = file.lastModified();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed.
+            return new JavadocIndex(file, lastModified,
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reads an index file that is not available as file, e.g. because it is packaged in a jar.
+     * Such an index is never modified.
+     */
+    static JavadocIndex read(URL url) throws IOException {
+        try (InputStream in = url.openStream()) {
+            return new JavadocIndex(null, 0, ByteBuffer.wrap(StreamUtils.copyToByteArray(in)));
+        }
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    long getLastModified() {
+        return lastModified;
+    }
+
+    boolean isModified() {
+        return file != null && file.lastModified() != lastModified;
+    }
+
+    /**
+     * @return the UTF-8 encoded JSON of the given class or {@code null} if it is not indexed
+     */
+    byte[] find(String key) {
+        byte[] keyBytes = key.getBytes(UTF_8);
+        int hash = key.hashCode();
+        int mask = slotCount - 1;
+        for (int i = 0; i < slotCount; i++) {
+            int slot = HEADER_SIZE + ((hash + i) & mask) * SLOT_SIZE;
+            int keyLength = buffer.getInt(slot + 8);
+            if (keyLength == 0) {
+                return null;
+            }
+            if (buffer.getInt(slot) == hash && keyLength == keyBytes.length
+                    && keyEquals(buffer.getInt(slot + 4), keyBytes)) {
+                return read(buffer.getInt(slot + 12), buffer.getInt(slot + 16));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return keys of all classes in the index
+     */
+    List<String> keys() {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < slotCount; i++) {
+            int slot = HEADER_SIZE + i * SLOT_SIZE;
+            int keyLength = buffer.getInt(slot + 8);
+            if (keyLength != 0) {
+                keys.add(new String(read(buffer.getInt(slot + 4), keyLength), UTF_8));
+            }
+        }
+        return keys;
+    }
+
+    private boolean keyEquals(int offset, byte[] keyBytes) {
+        for (int i = 0; i < keyBytes.length; i++) {
+            if (buffer.get(offset + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[] read(int offset, int length) {
+        byte[] bytes = new byte[length];
+        // duplicate to keep the shared buffer's position untouched for concurrent readers
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,171 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Core
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.javadoc;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+
+/**
+ * Javadoc packaged in jars on the class path and listed in a manifest written by the doclets.
+ * <p>
+ * All manifests {@code META-INF/auto-restdocs/javadoc-index} are read once. Each line of a
+ * manifest is the path of a JSON file or of a Javadoc index file relative to the root of the
+ * jar. Index files are loaded completely, JSON files are read when their class is looked up.
+ */
+class JavadocManifests {
+    static final String FILE_NAME = "META-INF/auto-restdocs/javadoc-index";
+
+    private static final Logger log = getLogger(JavadocReader.class);
+
+    private final Map<String, URL> jsonFiles = new HashMap<>();
+    private final List<JavadocIndex> indexes = new ArrayList<>();
+    private final Map<String, Set<String>> packageDirsByRoot = new HashMap<>();
+
+    private JavadocManifests() {
+    }
+
+    static JavadocManifests load(ClassLoader classLoader) {
+        JavadocManifests manifests = new JavadocManifests();
+        try {
+            Enumeration<URL> urls = classLoader.getResources(FILE_NAME);
+            while (urls.hasMoreElements()) {
+                manifests.add(urls.nextElement());
+            }
+        } catch (IOException e) {
+            log.error("Failed to list Javadoc manifests on the class path", e);
+        }
+        return manifests;
+    }
+
+    private void add(URL manifest) {
+        String manifestUrl = manifest.toString();
+        String root = manifestUrl.substring(0, manifestUrl.length() - FILE_NAME.length());
+        Set<String> packageDirs =
+                packageDirsByRoot.computeIfAbsent(codeSourceOf(root), key -> new HashSet<>());
+        try (BufferedReader reader =
+                new BufferedReader(new InputStreamReader(manifest.openStream(), UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String entry = line.trim();
+                if (entry.isEmpty() || entry.startsWith("#")) {
+                    continue;
+                }
+                URL url = new URL(root + entry);
+                if (entry.equals(JavadocIndex.FILE_NAME)) {
+                    readIndex(url);
+                } else {
+                    jsonFiles.putIfAbsent(entry, url);
+                    int packageEnd = entry.lastIndexOf('/');
+                    packageDirs.add(packageEnd < 0 ? "" : entry.substring(0, packageEnd));
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to read Javadoc manifest {}", manifest, e);
+        }
+    }
+
+    /**
+     * A broken index file is skipped, so that the other entries of the manifest are still read.
+     */
+    private void readIndex(URL url) {
+        try {
+            indexes.add(JavadocIndex.read(url));
+        } catch (IOException e) {
+            log.error("Failed to read Javadoc index file {}", url, e);
+        }
+    }
+
+    /**
+     * @param key relative path of the JSON file with "/" as separator
+     * @return the UTF-8 encoded JSON from an index file or {@code null} if it is not indexed
+     */
+    byte[] findInIndex(String key) {
+        for (JavadocIndex index : indexes) {
+            byte[] json = index.find(key);
+            if (json != null) {
+                return json;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param key relative path of the JSON file with "/" as separator
+     */
+    URL findJsonFile(String key) {
+        return jsonFiles.get(key);
+    }
+
+    /**
+     * @return keys of all classes listed in the manifests, including the classes in index files
+     */
+    Set<String> keys() {
+        Set<String> keys = new HashSet<>(jsonFiles.keySet());
+        for (JavadocIndex index : indexes) {
+            keys.addAll(index.keys());
+        }
+        return keys;
+    }
+
+    /**
+     * A manifest lists all documented classes of its packages in its jar. Classes of these
+     * packages in the same jar that are not listed have no Javadoc and do not need to be looked up
+     * on the class path. Classes of a package split across jars may still have Javadoc in a jar
+     * without manifest.
+     *
+     * @param key relative path of the JSON file with "/" as separator
+     * @param codeSource location of the jar or directory the class is loaded from, if known
+     */
+    boolean coversPackageOf(String key, URL codeSource) {
+        if (codeSource == null) {
+            return false;
+        }
+        Set<String> packageDirs = packageDirsByRoot.get(codeSource.toString());
+        int packageEnd = key.lastIndexOf('/');
+        return packageDirs != null
+                && packageDirs.contains(packageEnd < 0 ? "" : key.substring(0, packageEnd));
+    }
+
+    /**
+     * @param root URL of the root of a jar or directory on the class path
+     * @return the root in the form of a code source location, e.g. {@code file:/lib/model.jar}
+     * for {@code jar:file:/lib/model.jar!/}
+     */
+    private static String codeSourceOf(String root) {
+        if (root.startsWith("jar:") && root.endsWith("!/")) {
+            return root.substring("jar:".length(), root.length() - "!/".length());
+        }
+        return root;
+    }
+}
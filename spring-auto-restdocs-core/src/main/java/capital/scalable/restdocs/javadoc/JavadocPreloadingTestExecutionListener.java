@@ -0,0 +1,53 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Core
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.javadoc;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.core.Ordered;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.TestExecutionListener;
+
+/**
+ * Starts preloading the Javadoc of all classes before the first test class is executed,
+ * so that Javadoc is loaded while the application context starts.
+ * <p>
+ * Register it on the test classes with
+ * {@code @TestExecutionListeners(listeners = JavadocPreloadingTestExecutionListener.class,
+ * mergeMode = MERGE_WITH_DEFAULTS)}.
+ *
+ * @see JavadocReaderImpl#preload(String...)
+ */
+public class JavadocPreloadingTestExecutionListener implements TestExecutionListener, Ordered {
+
+    private static final AtomicBoolean preloadStarted = new AtomicBoolean();
+
+    @Override
+    public void beforeTestClass(TestContext testContext) {
+        if (preloadStarted.compareAndSet(false, true)) {
+            JavadocReaderImpl.createWithSystemProperty().preload();
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
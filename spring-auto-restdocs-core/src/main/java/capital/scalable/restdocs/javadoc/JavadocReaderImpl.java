@@ -26,38 +26,186 @@ import static org.slf4j.LoggerFactory.getLogger;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import javax.management.JMException;
+import javax.management.ObjectName;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
+import org.springframework.util.StreamUtils;
 
 public class JavadocReaderImpl implements JavadocReader {
     private static final Logger log = getLogger(JavadocReader.class);
     private static final String PATH_DELIMITER = ",";
     private static final String JAVADOC_JSON_DIR_PROPERTY =
             "org.springframework.restdocs.javadocJsonDir";
+    private static final String JAVADOC_EXCLUDED_PACKAGES_PROPERTY =
+            "org.springframework.restdocs.javadocExcludedPackages";
+    private static final String DEFAULT_EXCLUDED_PACKAGES = "java.,javax.,org.springframework.";
+    private static final String JAVADOC_LAZY_PARSING_THRESHOLD_PROPERTY =
+            "org.springframework.restdocs.javadocLazyParsingThreshold";
+    private static final int DEFAULT_LAZY_PARSING_THRESHOLD = 64 * 1024;
+    private static final String JAVADOC_MODIFICATION_CHECK_INTERVAL_PROPERTY =
+            "org.springframework.restdocs.javadocModificationCheckInterval";
+    private static final long DEFAULT_MODIFICATION_CHECK_INTERVAL_MILLIS = 1000;
+    private static final String JAVADOC_USAGE_FILE_PROPERTY =
+            "org.springframework.restdocs.javadocUsageFile";
+    private static final String JSON_EXTENSION = ".json";
 
-    private final Map<String, ClassJavadoc> classCache = new ConcurrentHashMap<>();
+    /**
+     * Readers shared across all operations of a JVM, keyed by the resolved Javadoc directories.
+     */
+    private static final Map<List<File>, JavadocReaderImpl> sharedReaders =
+            new ConcurrentHashMap<>();
+    /**
+     * Usage recorded by the shared readers, keyed by the usage file it is written to.
+     */
+    private static final Map<Path, JavadocUsage> sharedUsages = new ConcurrentHashMap<>();
+
+    private final Map<String, CachedClassJavadoc> classCache = new ConcurrentHashMap<>();
+    private final Map<File, JavadocIndexHolder> indexCache = new ConcurrentHashMap<>();
+    private final Map<File, DirectoryListing> directoryCache = new ConcurrentHashMap<>();
+    private final Map<Class<?>, List<Class<?>>> hierarchyCache = new ConcurrentHashMap<>();
+    private final Map<MemberKey, ResolvedComment> resolvedCommentCache = new ConcurrentHashMap<>();
+    private final StringPool stringPool = new StringPool();
+    private final JavadocStatistics statistics = new JavadocStatistics();
     private final ObjectMapper mapper;
     private final List<File> absoluteBaseDirs;
+    private final String[] excludedPackages;
+    private final int lazyParsingThreshold;
+    private final long modificationCheckIntervalNanos;
+    private volatile JavadocManifests manifests;
+    private volatile JavadocRegistries registries;
+    private volatile JavadocUsage usage;
 
-    private JavadocReaderImpl(ObjectMapper mapper, List<File> absoluteBaseDirs) {
+    private JavadocReaderImpl(ObjectMapper mapper, List<File> absoluteBaseDirs,
+            String[] excludedPackages, int lazyParsingThreshold,
+            long modificationCheckIntervalMillis) {
         this.mapper = mapper;
         this.absoluteBaseDirs = absoluteBaseDirs;
+        this.excludedPackages = excludedPackages;
+        this.lazyParsingThreshold = lazyParsingThreshold;
+        this.modificationCheckIntervalNanos =
+                TimeUnit.MILLISECONDS.toNanos(modificationCheckIntervalMillis);
     }
 
+    /**
+     * Returns the reader for the Javadoc directories configured via system property.
+     * <p>
+     * The reader is shared by all callers using the same directories, so that parsed Javadoc
+     * is kept for the lifetime of the JVM instead of being parsed again for every operation.
+     * Javadoc compiled into {@link JavadocRegistry registries} by the annotation processor is
+     * used before the JSON files.
+     * Classes in the packages configured via system property
+     * {@code org.springframework.restdocs.javadocExcludedPackages} are never looked up.
+     * JSON files of at least {@code org.springframework.restdocs.javadocLazyParsingThreshold}
+     * bytes are parsed lazily, member by member. Whether a JSON file was modified is checked at
+     * most once per {@code org.springframework.restdocs.javadocModificationCheckInterval}
+     * milliseconds. The settings of the first reader created for the directories are used.
+     * <p>
+     * The {@link JavadocStatistics statistics} of shared readers are available as MBean
+     * {@code capital.scalable.restdocs:type=JavadocReader} and logged when the JVM shuts down.
+     * <p>
+     * If the system property {@code org.springframework.restdocs.javadocUsageFile} is set, the
+     * classes and members looked up are added to this file when the JVM shuts down. The doclets
+     * can use it to only extract the Javadoc that is actually used.
+     */
     public static JavadocReaderImpl createWithSystemProperty() {
         String jsonDir = System.getProperties().getProperty(JAVADOC_JSON_DIR_PROPERTY);
         if (StringUtils.isEmpty(jsonDir)) {
             jsonDir = getDefaultJsonDirectory();
         }
-        return new JavadocReaderImpl(objectMapper(), toAbsoluteDirs(jsonDir));
+        String excludedPackages = System.getProperties()
+                .getProperty(JAVADOC_EXCLUDED_PACKAGES_PROPERTY, DEFAULT_EXCLUDED_PACKAGES);
+        int lazyParsingThreshold = Integer.getInteger(JAVADOC_LAZY_PARSING_THRESHOLD_PROPERTY,
+                DEFAULT_LAZY_PARSING_THRESHOLD);
+        long modificationCheckInterval = Long.getLong(JAVADOC_MODIFICATION_CHECK_INTERVAL_PROPERTY,
+                DEFAULT_MODIFICATION_CHECK_INTERVAL_MILLIS);
+        String usageFile = System.getProperties().getProperty(JAVADOC_USAGE_FILE_PROPERTY);
+        return sharedReaders.computeIfAbsent(toAbsoluteDirs(jsonDir),
+                dirs -> registerUsage(registerStatistics(new JavadocReaderImpl(objectMapper(),
+                        dirs, toPackagePrefixes(excludedPackages), lazyParsingThreshold,
+                        modificationCheckInterval)), usageFile));
+    }
+
+    private static JavadocReaderImpl registerUsage(JavadocReaderImpl reader, String usageFile) {
+        if (StringUtils.isEmpty(usageFile)) {
+            return reader;
+        }
+        reader.setUsage(sharedUsages.computeIfAbsent(Paths.get(usageFile).toAbsolutePath(),
+                JavadocReaderImpl::writeUsageOnShutdown));
+        return reader;
+    }
+
+    /**
+     * All shared readers record into the same usage, which is written by a single shutdown
+     * hook per file.
+     */
+    private static JavadocUsage writeUsageOnShutdown(Path path) {
+        JavadocUsage usage = new JavadocUsage();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                usage.write(path);
+            } catch (IOException e) {
+                log.error("Failed to write Javadoc usage file {}", path, e);
+            }
+        }, "javadoc-usage"));
+        return usage;
+    }
+
+    /**
+     * Used for testing.
+     */
+    void setRegistries(JavadocRegistries registries) {
+        this.registries = registries;
+    }
+
+    /**
+     * Records the classes and members looked up from now on.
+     */
+    void setUsage(JavadocUsage usage) {
+        this.usage = usage;
+    }
+
+    private static JavadocReaderImpl registerStatistics(JavadocReaderImpl reader) {
+        JavadocStatistics statistics = reader.statistics;
+        try {
+            ObjectName name = new ObjectName("capital.scalable.restdocs:type=JavadocReader,dirs="
+                    + ObjectName.quote(reader.absoluteBaseDirs.toString()));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(statistics, name);
+        } catch (JMException e) {
+            log.debug("Failed to register Javadoc statistics MBean", e);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (statistics.getCacheHits() + statistics.getCacheMisses() > 0) {
+                log.info("Javadoc statistics for {}: {}", reader.absoluteBaseDirs, statistics);
+            }
+        }, "javadoc-statistics"));
+        return reader;
     }
 
     private static String getDefaultJsonDirectory() {
@@ -71,91 +219,406 @@ public class JavadocReaderImpl implements JavadocReader {
      * Used for testing.
      */
     static JavadocReaderImpl createWith(String javadocJsonDir) {
-        return new JavadocReaderImpl(objectMapper(), toAbsoluteDirs(javadocJsonDir));
+        return createWith(javadocJsonDir, DEFAULT_EXCLUDED_PACKAGES);
+    }
+
+    /**
+     * Used for testing.
+     */
+    static JavadocReaderImpl createWith(String javadocJsonDir, String excludedPackages) {
+        return createWith(javadocJsonDir, excludedPackages, DEFAULT_LAZY_PARSING_THRESHOLD);
+    }
+
+    /**
+     * Used for testing. Modifications are checked on every lookup.
+     */
+    static JavadocReaderImpl createWith(String javadocJsonDir, String excludedPackages,
+            int lazyParsingThreshold) {
+        return createWith(javadocJsonDir, excludedPackages, lazyParsingThreshold, 0);
+    }
+
+    /**
+     * Used for testing.
+     */
+    static JavadocReaderImpl createWith(String javadocJsonDir, String excludedPackages,
+            int lazyParsingThreshold, long modificationCheckIntervalMillis) {
+        return new JavadocReaderImpl(objectMapper(), toAbsoluteDirs(javadocJsonDir),
+                toPackagePrefixes(excludedPackages), lazyParsingThreshold,
+                modificationCheckIntervalMillis);
     }
 
     @Override
     public String resolveFieldComment(Class<?> javaBaseClass, String javaFieldName) {
+        recordUsage(javaBaseClass, javaFieldName);
         return classJavadoc(javaBaseClass).getFieldComment(javaFieldName);
     }
 
     @Override
     public String resolveFieldTag(Class<?> javaBaseClass, String javaFieldName, String tagName) {
+        recordUsage(javaBaseClass, javaFieldName);
         return classJavadoc(javaBaseClass).getFieldTag(javaFieldName, tagName);
     }
 
     @Override
     public String resolveMethodComment(Class<?> javaBaseClass, final String javaMethodName) {
-        return resolveCommentFromClassHierarchy(javaBaseClass,
+        return resolveCommentFromClassHierarchy(
+                new MemberKey(javaBaseClass, MemberKey.METHOD_COMMENT, javaMethodName, null),
                 classJavadoc -> classJavadoc.getMethodComment(javaMethodName));
     }
 
     @Override
     public String resolveMethodTag(Class<?> javaBaseClass, final String javaMethodName,
             final String tagName) {
-        return resolveCommentFromClassHierarchy(javaBaseClass,
+        return resolveCommentFromClassHierarchy(
+                new MemberKey(javaBaseClass, MemberKey.METHOD_TAG, javaMethodName, tagName),
                 classJavadoc -> classJavadoc.getMethodTag(javaMethodName, tagName));
     }
 
     @Override
     public String resolveMethodParameterComment(Class<?> javaBaseClass, final String javaMethodName,
             final String javaParameterName) {
-        return resolveCommentFromClassHierarchy(javaBaseClass,
+        return resolveCommentFromClassHierarchy(
+                new MemberKey(javaBaseClass, MemberKey.METHOD_PARAMETER, javaMethodName,
+                        javaParameterName),
                 classJavadoc -> classJavadoc.getMethodParameterComment(javaMethodName, javaParameterName));
     }
 
+    /**
+     * Loads the Javadoc of all classes in the configured directories and in the jars with a
+     * Javadoc manifest in the background, so that tests do not have to wait for it.
+     * <p>
+     * The Javadoc is loaded in parallel with one thread per available processor. Classes
+     * that are looked up before their Javadoc is preloaded are read as usual.
+     *
+     * @param packageNames packages, including their sub packages, to load or none to load all
+     * @return future that completes when all Javadoc is loaded
+     */
+    public CompletableFuture<Void> preload(String... packageNames) {
+        Set<String> relativePaths = new LinkedHashSet<>();
+        for (File dir : absoluteBaseDirs) {
+            JavadocIndex index = javadocIndex(dir);
+            if (index != null) {
+                for (String key : index.keys()) {
+                    relativePaths.add(key.replace('/', File.separatorChar));
+                }
+            }
+            relativePaths.addAll(directoryListing(dir).jsonFiles.keySet());
+        }
+        for (String key : javadocManifests().keys()) {
+            relativePaths.add(key.replace('/', File.separatorChar));
+        }
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "javadoc-preload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (String relativePath : relativePaths) {
+                String name = relativePath.replace(File.separatorChar, '.');
+                if (!isExcluded(name) && isIncluded(name, packageNames)) {
+                    futures.add(CompletableFuture.runAsync(() -> preload(relativePath), executor));
+                }
+            }
+            return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+        } finally {
+            // Submitted tasks are still executed.
+            executor.shutdown();
+        }
+    }
+
+    private static boolean isIncluded(String name, String[] packageNames) {
+        if (packageNames.length == 0) {
+            return true;
+        }
+        for (String packageName : packageNames) {
+            if (name.startsWith(packageName + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void preload(String relativePath) {
+        if (!classCache.containsKey(relativePath)) {
+            classCache.putIfAbsent(relativePath, readFiles(relativePath, null));
+        }
+    }
+
+    public JavadocStatistics getStatistics() {
+        return statistics;
+    }
+
     private ClassJavadoc classJavadoc(Class<?> clazz) {
+        return cachedClassJavadoc(clazz).getClassJavadoc();
+    }
+
+    private CachedClassJavadoc cachedClassJavadoc(Class<?> clazz) {
+        if (isExcluded(clazz.getName())) {
+            return CachedClassJavadoc.EMPTY;
+        }
         String relativePath = classToRelativePath(clazz);
-        ClassJavadoc classJavadocFromCache = classCache.get(relativePath);
-        if (classJavadocFromCache != null) {
+        CachedClassJavadoc classJavadocFromCache = classCache.get(relativePath);
+        if (classJavadocFromCache != null
+                && !classJavadocFromCache.isModified(modificationCheckIntervalNanos)) {
+            statistics.cacheHit();
             return classJavadocFromCache;
         } else {
-            ClassJavadoc classJavadoc = readFiles(clazz, relativePath);
+            statistics.cacheMiss();
+            CachedClassJavadoc classJavadoc = readFiles(relativePath, clazz);
             classCache.put(relativePath, classJavadoc);
             return classJavadoc;
         }
     }
 
-    private String classToRelativePath(Class<?> clazz) {
-        String packageName = clazz.getPackage().getName();
-        String packageDir = packageName.replace(".", File.separator);
-        String className = clazz.getCanonicalName().replaceAll(packageName + "\\.?", "");
-        return new File(packageDir, className + ".json").getPath();
+    private void recordUsage(Class<?> clazz, String memberName) {
+        JavadocUsage usage = this.usage;
+        if (usage != null && !isExcluded(clazz.getName())) {
+            usage.record(clazz, memberName);
+        }
+    }
+
+    private boolean isExcluded(String className) {
+        for (String excludedPackage : excludedPackages) {
+            if (className.startsWith(excludedPackage)) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private ClassJavadoc readFiles(Class<?> clazz, String relativePath) {
+    private static String classToRelativePath(Class<?> clazz) {
+        String name = clazz.getName();
+        int packageEnd = name.lastIndexOf('.');
+        String canonicalName = clazz.getCanonicalName();
+        // Nested classes are separated by dots, e.g. package/Outer.Inner.json
+        String className = canonicalName != null
+                ? canonicalName.substring(packageEnd + 1)
+                : name.substring(packageEnd + 1);
+        if (packageEnd < 0) {
+            return className + JSON_EXTENSION;
+        }
+        String packageDir = name.substring(0, packageEnd).replace('.', File.separatorChar);
+        return packageDir + File.separatorChar + className + JSON_EXTENSION;
+    }
+
+    /**
+     * @param clazz class of the Javadoc or {@code null} if it is not known
+     */
+    private CachedClassJavadoc readFiles(String relativePath, Class<?> clazz) {
+        CachedClassJavadoc classJavadoc = findFiles(relativePath, clazz);
+        if (classJavadoc == null) {
+            log.debug("No Javadoc found for {} in any of the found JSON files", relativePath);
+            return notFound();
+        }
+        statistics.fileFound();
+        return classJavadoc;
+    }
+
+    private CachedClassJavadoc findFiles(String relativePath, Class<?> clazz) {
+        // Javadoc compiled into a registry class by the annotation processor
+        ClassJavadoc registered = javadocRegistries().find(resourceKey(relativePath));
+        if (registered != null) {
+            return new CachedClassJavadoc(registered);
+        }
+
         if (absoluteBaseDirs.isEmpty()) {
             // No absolute directory is configured and thus we try to find the file relative.
-            ClassJavadoc classJavadoc = readJson(new File(relativePath));
+            statistics.fileProbed();
+            CachedClassJavadoc classJavadoc = readJson(new File(relativePath));
             if (classJavadoc != null) {
                 return classJavadoc;
             }
         } else {
             // Try to find the file in all configured directories.
             for (File dir : absoluteBaseDirs) {
-                ClassJavadoc classJavadoc = readJson(new File(dir, relativePath));
+                statistics.fileProbed();
+                CachedClassJavadoc classJavadoc = readIndex(dir, relativePath);
                 if (classJavadoc != null) {
                     return classJavadoc;
                 }
+                File jsonFile = directoryListing(dir).jsonFiles.get(relativePath);
+                if (jsonFile != null) {
+                    classJavadoc = readJson(jsonFile);
+                    if (classJavadoc != null) {
+                        return classJavadoc;
+                    }
+                }
             }
         }
 
         // might be in some jar on the classpath
-        URL url = getClass().getClassLoader().getResource(relativePath);
+        statistics.fileProbed();
+        String key = resourceKey(relativePath);
+        JavadocManifests manifests = javadocManifests();
+        byte[] json = manifests.findInIndex(key);
+        if (json != null) {
+            try {
+                return new CachedClassJavadoc(parse(json));
+            } catch (IOException e) {
+                log.error("Failed to read {} from index file on the class path", key, e);
+            }
+        }
+        URL url = manifests.findJsonFile(key);
         if (url != null) {
-            return readJson(url);
+            CachedClassJavadoc classJavadoc = readJson(url);
+            if (classJavadoc != null) {
+                return classJavadoc;
+            }
+        }
+        if (!manifests.coversPackageOf(key, codeSource(clazz))) {
+            URL resource = getClass().getClassLoader().getResource(relativePath);
+            if (resource != null && !resource.equals(url)) {
+                return readJson(resource);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Lists all JSON files of the directory, so that classes without Javadoc do not cause
+     * a file system lookup per directory. The directory is listed again once one of its
+     * directories is modified, e.g. because the doclet created new files.
+     */
+    private DirectoryListing directoryListing(File dir) {
+        DirectoryListing listing = directoryCache.get(dir);
+        if (listing == null || listing.isModified(modificationCheckIntervalNanos)) {
+            listing = scanDirectory(dir);
+            directoryCache.put(dir, listing);
         }
+        return listing;
+    }
 
-        log.debug("No Javadoc found for class {} in any of the found JSON files", clazz.getCanonicalName());
-        return new ClassJavadoc();
+    private static DirectoryListing scanDirectory(File dir) {
+        Map<File, Long> directories = new HashMap<>();
+        // Read before listing, so that a modification during the scan triggers another scan.
+        directories.put(dir, dir.lastModified());
+        if (!dir.isDirectory()) {
+            return new DirectoryListing(Collections.emptyMap(), directories);
+        }
+        Path root = dir.toPath();
+        Map<String, File> jsonFiles = new HashMap<>();
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.forEach(path -> {
+                File file = path.toFile();
+                if (path.toString().endsWith(JSON_EXTENSION)) {
+                    jsonFiles.put(root.relativize(path).toString(), file);
+                } else if (!path.equals(root) && Files.isDirectory(path)) {
+                    directories.put(file, file.lastModified());
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Failed to list Javadoc JSON files in {}", dir, e);
+        }
+        return new DirectoryListing(jsonFiles, directories);
     }
 
-    private ClassJavadoc readJson(File docSource) {
+    /**
+     * Javadoc that was not found in the configured directories. It is looked up again once the
+     * listing of one of the directories is modified.
+     */
+    private CachedClassJavadoc notFound() {
+        if (absoluteBaseDirs.isEmpty()) {
+            return CachedClassJavadoc.EMPTY;
+        }
+        List<DirectoryListing> listings = new ArrayList<>();
+        for (File dir : absoluteBaseDirs) {
+            listings.add(directoryCache.get(dir));
+        }
+        return new CachedClassJavadoc(listings);
+    }
+
+    private CachedClassJavadoc readIndex(File dir, String relativePath) {
+        JavadocIndex index = javadocIndex(dir);
+        if (index == null) {
+            return null;
+        }
+        String key = resourceKey(relativePath);
+        byte[] json = index.find(key);
+        if (json == null) {
+            return null;
+        }
         try {
-            return mapper
-                    .readerFor(ClassJavadoc.class)
-                    .readValue(docSource);
-        } catch (FileNotFoundException e) {
+            return new CachedClassJavadoc(parse(json), index.getFile(), index.getLastModified());
+        } catch (IOException e) {
+            log.error("Failed to read {} from index file {}", key, index.getFile(), e);
+        }
+        return null;
+    }
+
+    private static URL codeSource(Class<?> clazz) {
+        if (clazz == null) {
+            return null;
+        }
+        CodeSource codeSource = clazz.getProtectionDomain().getCodeSource();
+        return codeSource != null ? codeSource.getLocation() : null;
+    }
+
+    private static String resourceKey(String relativePath) {
+        return StringUtils.removeStart(relativePath.replace(File.separatorChar, '/'), "/");
+    }
+
+    /**
+     * Manifests of Javadoc packaged in jars are only read once, on the first class path lookup.
+     */
+    private JavadocManifests javadocManifests() {
+        JavadocManifests result = manifests;
+        if (result == null) {
+            synchronized (this) {
+                result = manifests;
+                if (result == null) {
+                    result = JavadocManifests.load(getClass().getClassLoader());
+                    manifests = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Registries generated by the annotation processor are only loaded once, on the first lookup.
+     */
+    private JavadocRegistries javadocRegistries() {
+        JavadocRegistries result = registries;
+        if (result == null) {
+            synchronized (this) {
+                result = registries;
+                if (result == null) {
+                    result = JavadocRegistries.load(getClass().getClassLoader(), stringPool);
+                    registries = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private JavadocIndex javadocIndex(File dir) {
+        JavadocIndexHolder holder = indexCache.get(dir);
+        if (holder == null || holder.isModified()) {
+            holder = new JavadocIndexHolder(openIndex(dir));
+            indexCache.put(dir, holder);
+        }
+        return holder.index;
+    }
+
+    private static JavadocIndex openIndex(File dir) {
+        try {
+            return JavadocIndex.open(dir);
+        } catch (IOException e) {
+            log.error("Failed to open Javadoc index file in {}", dir, e);
+            return null;
+        }
+    }
+
+    private CachedClassJavadoc readJson(File docSource) {
+        // Read before parsing, so that a modification during parsing triggers a reload.
+        long lastModified = docSource.lastModified();
+        try {
+            byte[] json = Files.readAllBytes(docSource.toPath());
+            return new CachedClassJavadoc(parse(json), docSource, lastModified);
+        } catch (FileNotFoundException | NoSuchFileException e) {
             // Ignored as we might try more than one file and we warn if no Javadoc file
             // is found at the end.
         } catch (IOException e) {
@@ -164,17 +627,37 @@ public class JavadocReaderImpl implements JavadocReader {
         return null;
     }
 
-    private ClassJavadoc readJson(URL docSource) {
-        try {
-            return mapper
-                    .readerFor(ClassJavadoc.class)
-                    .readValue(docSource);
+    private CachedClassJavadoc readJson(URL docSource) {
+        try (InputStream in = docSource.openStream()) {
+            return new CachedClassJavadoc(parse(StreamUtils.copyToByteArray(in)));
         } catch (IOException e) {
             log.error("Failed to read url {}", docSource, e);
         }
         return null;
     }
 
+    /**
+     * Large JSON files are only indexed here. Their members are parsed when looked up,
+     * as usually only a few members of a large class are documented.
+     * <p>
+     * Parsed Javadoc is stored in compact maps and strings are shared across all classes,
+     * as the Javadoc of many classes is kept for the whole test run.
+     */
+    private ClassJavadoc parse(byte[] json) throws IOException {
+        long start = System.nanoTime();
+        ClassJavadoc classJavadoc;
+        if (lazyParsingThreshold >= 0 && json.length >= lazyParsingThreshold) {
+            classJavadoc = LazyClassJavadoc.parse(json, mapper, stringPool);
+        } else {
+            classJavadoc = mapper
+                    .readerFor(ClassJavadoc.class)
+                    .<ClassJavadoc>readValue(json)
+                    .compact(stringPool);
+        }
+        statistics.parsed(json.length, System.nanoTime() - start);
+        return classJavadoc;
+    }
+
     private static ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
         mapper.setVisibility(mapper.getSerializationConfig().getDefaultVisibilityChecker()
@@ -185,6 +668,18 @@ public class JavadocReaderImpl implements JavadocReader {
         return mapper;
     }
 
+    private static String[] toPackagePrefixes(String packages) {
+        List<String> prefixes = new ArrayList<>();
+        if (isNotBlank(packages)) {
+            for (String prefix : split(packages, PATH_DELIMITER)) {
+                if (isNotBlank(prefix)) {
+                    prefixes.add(prefix.trim());
+                }
+            }
+        }
+        return prefixes.toArray(new String[0]);
+    }
+
     private static List<File> toAbsoluteDirs(String javadocJsonDirs) {
         List<File> absoluteDirs = new ArrayList<>();
         if (isNotBlank(javadocJsonDirs)) {
@@ -210,34 +705,264 @@ public class JavadocReaderImpl implements JavadocReader {
      * whether a method in the super class actually overwrites the given method.
      * However, the Javadoc model ignores method signatures anyway and it
      * should not cause issues for the usual use case.
+     * <p>
+     * Results are cached per member until one of the Javadoc files they were found in or
+     * looked up in is modified.
+     * <p>
+     * The walk stops at the first class whose Javadoc was written with the inherited comments
+     * already resolved.
      */
-    private String resolveCommentFromClassHierarchy(Class<?> javaBaseClass,
+    private String resolveCommentFromClassHierarchy(MemberKey memberKey,
             CommentExtractor commentExtractor) {
-        String comment = commentExtractor.comment(classJavadoc(javaBaseClass));
-        if (isNotBlank(comment)) {
-            // Direct Javadoc on a method always wins.
-            return comment;
+        ResolvedComment resolvedComment = resolvedCommentCache.get(memberKey);
+        if (resolvedComment != null
+                && !resolvedComment.isModified(modificationCheckIntervalNanos)) {
+            return resolvedComment.comment;
         }
-        // Super class has precedence over interfaces, but this also means that interfaces
-        // of super classes have precedence over interfaces of the class itself.
-        if (javaBaseClass.getSuperclass() != null) {
-            String superClassComment =
-                    resolveCommentFromClassHierarchy(javaBaseClass.getSuperclass(),
-                            commentExtractor);
-            if (isNotBlank(superClassComment)) {
-                return superClassComment;
+
+        String comment = "";
+        List<CachedClassJavadoc> sources = new ArrayList<>();
+        int classesVisited = 0;
+        for (Class<?> clazz : classHierarchy(memberKey.clazz)) {
+            classesVisited++;
+            recordUsage(clazz, memberKey.methodName);
+            CachedClassJavadoc classJavadoc = cachedClassJavadoc(clazz);
+            if (classJavadoc.canBeModified()) {
+                sources.add(classJavadoc);
+            }
+            String classComment = commentExtractor.comment(classJavadoc.getClassJavadoc());
+            if (isNotBlank(classComment)) {
+                comment = classComment;
+                break;
+            }
+            if (classJavadoc.getClassJavadoc().isInheritanceResolved()) {
+                // The doclet already added the comments inherited from the super types.
+                break;
             }
         }
-        for (Class<?> i : javaBaseClass.getInterfaces()) {
-            String interfaceComment = resolveCommentFromClassHierarchy(i, commentExtractor);
-            if (isNotBlank(interfaceComment)) {
-                return interfaceComment;
+        statistics.hierarchyWalked(classesVisited);
+        resolvedCommentCache.put(memberKey, new ResolvedComment(comment, sources));
+        return comment;
+    }
+
+    /**
+     * @return the class followed by its super classes and interfaces in the order in which
+     * Javadoc is looked up, without excluded classes
+     */
+    private List<Class<?>> classHierarchy(Class<?> javaBaseClass) {
+        List<Class<?>> hierarchy = hierarchyCache.get(javaBaseClass);
+        if (hierarchy == null) {
+            Set<Class<?>> classes = new LinkedHashSet<>();
+            addToHierarchy(javaBaseClass, classes);
+            hierarchy = new ArrayList<>();
+            for (Class<?> clazz : classes) {
+                if (!isExcluded(clazz.getName())) {
+                    hierarchy.add(clazz);
+                }
             }
+            hierarchyCache.put(javaBaseClass, hierarchy);
+        }
+        return hierarchy;
+    }
+
+    private static void addToHierarchy(Class<?> clazz, Set<Class<?>> hierarchy) {
+        if (!hierarchy.add(clazz)) {
+            // Already added together with its super classes and interfaces. Javadoc found
+            // in there would have been found at the first occurrence already.
+            return;
+        }
+        // Super class has precedence over interfaces, but this also means that interfaces
+        // of super classes have precedence over interfaces of the class itself.
+        if (clazz.getSuperclass() != null) {
+            addToHierarchy(clazz.getSuperclass(), hierarchy);
+        }
+        for (Class<?> i : clazz.getInterfaces()) {
+            addToHierarchy(i, hierarchy);
         }
-        return "";
     }
 
     private interface CommentExtractor {
         String comment(ClassJavadoc classJavadoc);
     }
+
+    /**
+     * Javadoc index of a directory. Directories without index file are remembered as well.
+     */
+    private static class JavadocIndexHolder {
+        private final JavadocIndex index;
+
+        JavadocIndexHolder(JavadocIndex index) {
+            this.index = index;
+        }
+
+        boolean isModified() {
+            return index != null && index.isModified();
+        }
+    }
+
+    /**
+     * JSON files of a directory together with the modification times of the directory and its
+     * sub directories at the time they were listed.
+     */
+    private static class DirectoryListing {
+        private final Map<String, File> jsonFiles;
+        private final Map<File, Long> directories;
+        private volatile long checkedAt = System.nanoTime();
+        private volatile boolean modified;
+
+        DirectoryListing(Map<String, File> jsonFiles, Map<File, Long> directories) {
+            this.jsonFiles = jsonFiles;
+            this.directories = directories;
+        }
+
+        /**
+         * Files are added to or removed from a directory, e.g. a package directory, by modifying
+         * it. Checked at most once per interval, as there is a system call per directory.
+         */
+        boolean isModified(long checkIntervalNanos) {
+            if (modified) {
+                return true;
+            }
+            long now = System.nanoTime();
+            if (now - checkedAt < checkIntervalNanos) {
+                return false;
+            }
+            checkedAt = now;
+            for (Map.Entry<File, Long> directory : directories.entrySet()) {
+                if (directory.getKey().lastModified() != directory.getValue()) {
+                    modified = true;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Method of a class for which a comment, tag or parameter comment is resolved.
+     */
+    private static class MemberKey {
+        static final int METHOD_COMMENT = 0;
+        static final int METHOD_TAG = 1;
+        static final int METHOD_PARAMETER = 2;
+
+        private final Class<?> clazz;
+        private final int kind;
+        private final String methodName;
+        private final String name;
+
+        /**
+         * @param name tag or parameter name, {@code null} for the method comment
+         */
+        MemberKey(Class<?> clazz, int kind, String methodName, String name) {
+            this.clazz = clazz;
+            this.kind = kind;
+            this.methodName = methodName;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MemberKey)) {
+                return false;
+            }
+            MemberKey that = (MemberKey) o;
+            return kind == that.kind && clazz.equals(that.clazz)
+                    && Objects.equals(methodName, that.methodName)
+                    && Objects.equals(name, that.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(clazz, kind, methodName, name);
+        }
+    }
+
+    /**
+     * Comment resolved from the class hierarchy and the Javadoc files it depends on.
+     */
+    private static class ResolvedComment {
+        private final String comment;
+        private final List<CachedClassJavadoc> sources;
+
+        ResolvedComment(String comment, List<CachedClassJavadoc> sources) {
+            this.comment = comment;
+            this.sources = sources;
+        }
+
+        boolean isModified(long checkIntervalNanos) {
+            for (CachedClassJavadoc source : sources) {
+                if (source.isModified(checkIntervalNanos)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Parsed Javadoc of a class together with the file it was read from, if any. Javadoc that was
+     * not found keeps the listings of the directories it was looked up in instead.
+     */
+    private static class CachedClassJavadoc {
+        static final CachedClassJavadoc EMPTY = new CachedClassJavadoc(ClassJavadoc.EMPTY);
+
+        private final ClassJavadoc classJavadoc;
+        private final File source;
+        private final long lastModified;
+        private final List<DirectoryListing> listings;
+        private volatile long checkedAt = System.nanoTime();
+
+        CachedClassJavadoc(ClassJavadoc classJavadoc) {
+            this(classJavadoc, null, 0L);
+        }
+
+        CachedClassJavadoc(ClassJavadoc classJavadoc, File source, long lastModified) {
+            this.classJavadoc = classJavadoc;
+            this.source = source;
+            this.lastModified = lastModified;
+            this.listings = Collections.emptyList();
+        }
+
+        CachedClassJavadoc(List<DirectoryListing> listings) {
+            this.classJavadoc = ClassJavadoc.EMPTY;
+            this.source = null;
+            this.lastModified = 0L;
+            this.listings = listings;
+        }
+
+        ClassJavadoc getClassJavadoc() {
+            return classJavadoc;
+        }
+
+        boolean canBeModified() {
+            return source != null || !listings.isEmpty();
+        }
+
+        /**
+         * Javadoc read from the classpath is never considered modified. Javadoc that was not
+         * found is modified once one of the directories it was looked up in is modified.
+         * The modification time of the file is only read again once the interval since the last
+         * check has passed, as looking it up for every cache hit is a system call.
+         */
+        boolean isModified(long checkIntervalNanos) {
+            if (source == null) {
+                for (DirectoryListing listing : listings) {
+                    if (listing.isModified(checkIntervalNanos)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            long now = System.nanoTime();
+            if (now - checkedAt < checkIntervalNanos) {
+                return false;
+            }
+            checkedAt = now;
+            return source.lastModified() != lastModified;
+        }
+    }
 }
@@ -0,0 +1,151 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Core
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.javadoc;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+import org.slf4j.Logger;
+
+/**
+ * Javadoc compiled into {@link JavadocRegistry registries} by the annotation processor.
+ * <p>
+ * All registries found with {@link ServiceLoader} are read once. Their Javadoc is stored under
+ * the same keys as the JSON files, e.g. {@code com/example/Outer.Inner.json}, so that
+ * {@link JavadocReaderImpl} can use the registries as one more source of JSON files.
+ */
+class JavadocRegistries {
+    static final JavadocRegistries EMPTY = new JavadocRegistries(new HashMap<>());
+
+    private static final Logger log = getLogger(JavadocReader.class);
+
+    private final Map<String, ClassJavadoc> classes;
+
+    private JavadocRegistries(Map<String, ClassJavadoc> classes) {
+        this.classes = classes;
+    }
+
+    static JavadocRegistries load(ClassLoader classLoader, StringPool pool) {
+        try {
+            return of(ServiceLoader.load(JavadocRegistry.class, classLoader), pool);
+        } catch (ServiceConfigurationError e) {
+            log.error("Failed to load Javadoc registries", e);
+            return EMPTY;
+        }
+    }
+
+    static JavadocRegistries of(Iterable<JavadocRegistry> registries, StringPool pool) {
+        Map<String, ClassJavadoc> classes = new HashMap<>();
+        int count = 0;
+        for (JavadocRegistry registry : registries) {
+            registry.register(new Registrar(classes));
+            count++;
+        }
+        if (count == 0) {
+            return EMPTY;
+        }
+        log.debug("Loaded Javadoc of {} classes from {} registries", classes.size(), count);
+        classes.replaceAll((key, classJavadoc) -> classJavadoc.compact(pool));
+        return new JavadocRegistries(classes);
+    }
+
+    /**
+     * @param key relative path of the JSON file with "/" as separator
+     * @return the Javadoc or {@code null} if the class is in none of the registries
+     */
+    ClassJavadoc find(String key) {
+        return classes.get(key);
+    }
+
+    /**
+     * @return keys of all classes in the registries
+     */
+    Set<String> keys() {
+        return classes.keySet();
+    }
+
+    /**
+     * Nested classes are separated by dots in the key, e.g. {@code com/example/Outer.Inner.json}
+     * for {@code com.example.Outer$Inner}.
+     */
+    static String toKey(String className) {
+        int packageEnd = className.lastIndexOf('.');
+        String simpleName = className.substring(packageEnd + 1).replace('$', '.');
+        if (packageEnd < 0) {
+            return simpleName + ".json";
+        }
+        return className.substring(0, packageEnd).replace('.', '/') + '/' + simpleName + ".json";
+    }
+
+    private static class Registrar implements JavadocRegistry.Registrar {
+        private final Map<String, ClassJavadoc> classes;
+
+        Registrar(Map<String, ClassJavadoc> classes) {
+            this.classes = classes;
+        }
+
+        private ClassJavadoc classJavadoc(String className) {
+            return classes.computeIfAbsent(toKey(className), key -> new ClassJavadoc());
+        }
+
+        @Override
+        public void classComment(String className, String comment) {
+            classJavadoc(className).setClassComment(comment);
+        }
+
+        @Override
+        public void inheritanceResolved(String className) {
+            classJavadoc(className).setInheritanceResolved();
+        }
+
+        @Override
+        public void fieldComment(String className, String fieldName, String comment) {
+            classJavadoc(className).field(fieldName).setComment(comment);
+        }
+
+        @Override
+        public void fieldTag(String className, String fieldName, String tagName, String text) {
+            classJavadoc(className).field(fieldName).putTag(tagName, text);
+        }
+
+        @Override
+        public void methodComment(String className, String methodName, String comment) {
+            classJavadoc(className).method(methodName).setComment(comment);
+        }
+
+        @Override
+        public void methodParameterComment(String className, String methodName,
+                String parameterName, String comment) {
+            classJavadoc(className).method(methodName)
+                    .putParameterComment(parameterName, comment);
+        }
+
+        @Override
+        public void methodTag(String className, String methodName, String tagName,
+                String text) {
+            classJavadoc(className).method(methodName).putTag(tagName, text);
+        }
+    }
+}
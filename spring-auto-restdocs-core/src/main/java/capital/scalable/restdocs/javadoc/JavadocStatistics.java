@@ -0,0 +1,122 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Core
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.javadoc;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class JavadocStatistics implements JavadocStatisticsMBean {
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder filesProbed = new LongAdder();
+    private final LongAdder filesFound = new LongAdder();
+    private final LongAdder bytesParsed = new LongAdder();
+    private final LongAdder parseTimeNanos = new LongAdder();
+    private final LongAdder hierarchyWalks = new LongAdder();
+    private final LongAdder hierarchyClassesVisited = new LongAdder();
+    private final LongAccumulator maxHierarchyDepth = new LongAccumulator(Math::max, 0);
+
+    void cacheHit() {
+        cacheHits.increment();
+    }
+
+    void cacheMiss() {
+        cacheMisses.increment();
+    }
+
+    void fileProbed() {
+        filesProbed.increment();
+    }
+
+    void fileFound() {
+        filesFound.increment();
+    }
+
+    void parsed(int bytes, long nanos) {
+        bytesParsed.add(bytes);
+        parseTimeNanos.add(nanos);
+    }
+
+    void hierarchyWalked(int classesVisited) {
+        hierarchyWalks.increment();
+        hierarchyClassesVisited.add(classesVisited);
+        maxHierarchyDepth.accumulate(classesVisited);
+    }
+
+    @Override
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    @Override
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    @Override
+    public long getFilesProbed() {
+        return filesProbed.sum();
+    }
+
+    @Override
+    public long getFilesFound() {
+        return filesFound.sum();
+    }
+
+    @Override
+    public long getBytesParsed() {
+        return bytesParsed.sum();
+    }
+
+    @Override
+    public long getParseTimeMillis() {
+        return NANOSECONDS.toMillis(parseTimeNanos.sum());
+    }
+
+    @Override
+    public long getHierarchyWalks() {
+        return hierarchyWalks.sum();
+    }
+
+    @Override
+    public long getHierarchyClassesVisited() {
+        return hierarchyClassesVisited.sum();
+    }
+
+    @Override
+    public long getMaxHierarchyDepth() {
+        return maxHierarchyDepth.get();
+    }
+
+    @Override
+    public String toString() {
+        return "cache hits: " + getCacheHits()
+                + ", cache misses: " + getCacheMisses()
+                + ", files probed: " + getFilesProbed()
+                + ", files found: " + getFilesFound()
+                + ", bytes parsed: " + getBytesParsed()
+                + ", parse time: " + getParseTimeMillis() + " ms"
+                + ", hierarchy walks: " + getHierarchyWalks()
+                + ", classes visited: " + getHierarchyClassesVisited()
+                + ", max hierarchy depth: " + getMaxHierarchyDepth();
+    }
+}
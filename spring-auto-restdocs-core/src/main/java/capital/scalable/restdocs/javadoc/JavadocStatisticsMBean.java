@@ -0,0 +1,65 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Core
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.javadoc;
+
+/**
+ * Statistics of a {@link JavadocReaderImpl}, registered as MBean for the shared readers.
+ */
+public interface JavadocStatisticsMBean {
+
+    /**
+     * @return lookups of classes whose Javadoc was already loaded
+     */
+    long getCacheHits();
+
+    /**
+     * @return lookups of classes whose Javadoc was not loaded yet or was modified
+     */
+    long getCacheMisses();
+
+    /**
+     * @return locations, i.e. directories and the class path, in which Javadoc was looked for
+     */
+    long getFilesProbed();
+
+    /**
+     * @return classes for which Javadoc was found
+     */
+    long getFilesFound();
+
+    long getBytesParsed();
+
+    long getParseTimeMillis();
+
+    /**
+     * @return walks up the class hierarchy to resolve inherited method comments
+     */
+    long getHierarchyWalks();
+
+    /**
+     * @return classes visited in all walks up the class hierarchy
+     */
+    long getHierarchyClassesVisited();
+
+    /**
+     * @return the most classes visited in a single walk up the class hierarchy
+     */
+    long getMaxHierarchyDepth();
+}
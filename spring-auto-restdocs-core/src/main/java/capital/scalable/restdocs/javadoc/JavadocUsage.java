@@ -0,0 +1,97 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Core
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.javadoc;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Classes and members whose Javadoc was looked up, written as usage manifest for the doclets,
+ * which then only extract the documentation of these members.
+ * <p>
+ * Each line of the manifest names a member as {@code <binary class name>#<member name>}.
+ * The members of previous runs and of other JVMs writing the same file are kept, so that
+ * forked test JVMs can share a manifest.
+ */
+class JavadocUsage {
+    /**
+     * File locks are held by the whole JVM, and locking a file twice in one JVM fails instead
+     * of waiting. Writes within the JVM are therefore serialized before the file is locked.
+     */
+    private static final Object WRITE_LOCK = new Object();
+
+    private final Set<String> members = ConcurrentHashMap.newKeySet();
+
+    void record(Class<?> clazz, String memberName) {
+        members.add(clazz.getName() + "#" + memberName);
+    }
+
+    Set<String> getMembers() {
+        return members;
+    }
+
+    /**
+     * Adds the recorded members to the manifest file. The file is locked while it is updated.
+     */
+    void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        synchronized (WRITE_LOCK) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    FileLock lock = channel.lock()) {
+                Set<String> lines = new TreeSet<>(members);
+                lines.addAll(readLines(channel));
+                byte[] content = (String.join("\n", lines) + "\n").getBytes(UTF_8);
+                channel.truncate(0);
+                channel.write(ByteBuffer.wrap(content), 0);
+            }
+        }
+    }
+
+    private static Set<String> readLines(FileChannel channel) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long position = 0;
+        int read;
+        while ((read = channel.read(buffer, position)) > 0) {
+            content.write(buffer.array(), 0, read);
+            position += read;
+            buffer.clear();
+        }
+        Set<String> lines =
+                new TreeSet<>(Arrays.asList(new String(content.toByteArray(), UTF_8).split("\n")));
+        lines.remove("");
+        return lines;
+    }
+}
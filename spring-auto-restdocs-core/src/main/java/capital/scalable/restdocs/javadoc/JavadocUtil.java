@@ -19,58 +19,286 @@
  */
 package capital.scalable.restdocs.javadoc;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import capital.scalable.restdocs.util.TemplateFormatting;
 
 public class JavadocUtil {
-    private static String FORCED_LB = "__FLB__";
-    private static String LB = "__LB__";
+    private static final String FORCED_LB = "__FLB__";
+    private static final String LB = "__LB__";
+    private static final int CACHE_SIZE = 4096;
+
+    /**
+     * Converted comments, as the same comments are converted for every snippet they are used in.
+     */
+    private static final Map<ConversionKey, String> cache =
+            Collections.synchronizedMap(new LinkedHashMap<ConversionKey, String>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ConversionKey, String> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            });
 
     private JavadocUtil() {
         // util
     }
 
     public static String convertFromJavadoc(String javadoc, TemplateFormatting templateFormatting) {
-        String converted = javadoc
-                // line breaks in javadoc are ignored
-                .replace("\n", "")
-                // will be replaced with forced line break
-                .replace("<br/>", FORCED_LB)
-                .replace("<br>", FORCED_LB)
-                // will be replaced with normal line break
-                .replace("<p>", LB + LB)
-                .replace("</p>", LB + LB)
-                .replace("<ul>", LB)
-                .replace("</ul>", LB + LB)
-                .replace("<li>", LB + "- ")
-                .replace("</li>", "")
-                .replace("<b>", templateFormatting.getBold())
-                .replace("</b>", templateFormatting.getBold())
-                .replace("<strong>", templateFormatting.getBold())
-                .replace("</strong>", templateFormatting.getBold())
-                .replace("<i>", templateFormatting.getItalics())
-                .replace("</i>", templateFormatting.getItalics())
-                .replace("<em>", templateFormatting.getItalics())
-                .replace("</em>", templateFormatting.getItalics())
-                .replace("<code>", templateFormatting.getCode())
-                .replace("</code>", templateFormatting.getCode())
-                .replaceAll("<a\\s+href\\s*=\\s*[\"\'](.*?)[\"\']\\s*>(.*?)</a>",
-                        templateFormatting.link());
-
-        if (converted.isEmpty()) {
+        ConversionKey key = new ConversionKey(javadoc, templateFormatting);
+        String converted = cache.get(key);
+        if (converted == null) {
+            converted = convert(javadoc, templateFormatting);
+            cache.put(key, converted);
+        }
+        return converted;
+    }
+
+    private static String convert(String javadoc, TemplateFormatting templateFormatting) {
+        // line breaks in javadoc are ignored
+        String text = javadoc.indexOf('\n') < 0 ? javadoc : javadoc.replace("\n", "");
+        StringBuilder converted = new StringBuilder(text.length() + 16);
+        convertTags(text, 0, text.length(), templateFormatting, converted);
+
+        if (converted.length() == 0) {
             return "";
         }
 
-        String res = trimAndFixLineBreak(converted, FORCED_LB, templateFormatting.getLineBreak());
+        String res = trimAndFixLineBreak(converted.toString(), FORCED_LB,
+                templateFormatting.getLineBreak());
         res = trimAndFixLineBreak(res, LB, "\n");
         return res;
     }
 
+    /**
+     * Replaces the supported HTML tags between start and end in a single pass. Line breaks are
+     * only marked here, because whitespace around them is trimmed afterwards.
+     */
+    private static void convertTags(String text, int start, int end,
+            TemplateFormatting templateFormatting, StringBuilder converted) {
+        int i = start;
+        while (i < end) {
+            char c = text.charAt(i);
+            if (c == '<') {
+                int tagEnd = text.indexOf('>', i);
+                if (tagEnd > i && tagEnd < end) {
+                    String replacement = tagReplacement(text, i + 1, tagEnd, templateFormatting);
+                    if (replacement != null) {
+                        converted.append(replacement);
+                        i = tagEnd + 1;
+                        continue;
+                    }
+                }
+                int linkEnd = convertLink(text, i, end, templateFormatting, converted);
+                if (linkEnd > i) {
+                    i = linkEnd;
+                    continue;
+                }
+            }
+            converted.append(c);
+            i++;
+        }
+    }
+
+    private static String tagReplacement(String text, int nameStart, int nameEnd,
+            TemplateFormatting templateFormatting) {
+        if (nameEnd - nameStart > "/strong".length()) {
+            return null;
+        }
+        switch (text.substring(nameStart, nameEnd)) {
+            // will be replaced with forced line break
+            case "br/":
+            case "br":
+                return FORCED_LB;
+            // will be replaced with normal line break
+            case "p":
+            case "/p":
+                return LB + LB;
+            case "ul":
+                return LB;
+            case "/ul":
+                return LB + LB;
+            case "li":
+                return LB + "- ";
+            case "/li":
+                return "";
+            case "b":
+            case "/b":
+            case "strong":
+            case "/strong":
+                return templateFormatting.getBold();
+            case "i":
+            case "/i":
+            case "em":
+            case "/em":
+                return templateFormatting.getItalics();
+            case "code":
+            case "/code":
+                return templateFormatting.getCode();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Converts a link of the form {@code <a href="...">...</a>} starting at the given index.
+     *
+     * @return index after the link or {@code -1} if there is no link at the given index
+     */
+    private static int convertLink(String text, int start, int end,
+            TemplateFormatting templateFormatting, StringBuilder converted) {
+        int i = start + 1;
+        if (i >= end || text.charAt(i) != 'a') {
+            return -1;
+        }
+        i++;
+        int hrefKeyword = skipWhitespace(text, i, end);
+        if (hrefKeyword == i || !text.startsWith("href", hrefKeyword)) {
+            return -1;
+        }
+        i = skipWhitespace(text, hrefKeyword + "href".length(), end);
+        if (i >= end || text.charAt(i) != '=') {
+            return -1;
+        }
+        i = skipWhitespace(text, i + 1, end);
+        if (i >= end || !isQuote(text.charAt(i))) {
+            return -1;
+        }
+        int hrefStart = i + 1;
+        for (i = hrefStart; i < end && !isLineTerminator(text.charAt(i)); i++) {
+            if (isQuote(text.charAt(i))) {
+                int tagEnd = skipWhitespace(text, i + 1, end);
+                if (tagEnd < end && text.charAt(tagEnd) == '>') {
+                    int textEnd = linkTextEnd(text, tagEnd + 1, end);
+                    if (textEnd >= 0) {
+                        appendLink(text, hrefStart, i, tagEnd + 1, textEnd, templateFormatting,
+                                converted);
+                        return textEnd + "</a>".length();
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return index of the closing tag of the link text or {@code -1} if the link is not closed
+     * on the same line
+     */
+    private static int linkTextEnd(String text, int textStart, int end) {
+        int textEnd = text.indexOf("</a>", textStart);
+        if (textEnd < 0 || textEnd + "</a>".length() > end) {
+            return -1;
+        }
+        for (int i = textStart; i < textEnd; i++) {
+            if (isLineTerminator(text.charAt(i))) {
+                return -1;
+            }
+        }
+        return textEnd;
+    }
+
+    private static void appendLink(String text, int hrefStart, int hrefEnd, int textStart,
+            int textEnd, TemplateFormatting templateFormatting, StringBuilder converted) {
+        StringBuilder href = new StringBuilder();
+        convertTags(text, hrefStart, hrefEnd, templateFormatting, href);
+        StringBuilder linkText = new StringBuilder();
+        convertTags(text, textStart, textEnd, templateFormatting, linkText);
+        // link pattern refers to the href as $1 and to the text as $2
+        String link = templateFormatting.link();
+        for (int i = 0; i < link.length(); i++) {
+            char c = link.charAt(i);
+            if (c == '$' && i + 1 < link.length() && link.charAt(i + 1) == '1') {
+                converted.append(href);
+                i++;
+            } else if (c == '$' && i + 1 < link.length() && link.charAt(i + 1) == '2') {
+                converted.append(linkText);
+                i++;
+            } else {
+                converted.append(c);
+            }
+        }
+    }
+
+    private static int skipWhitespace(String text, int start, int end) {
+        int i = start;
+        while (i < end && isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isQuote(char c) {
+        return c == '"' || c == '\'';
+    }
+
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    /**
+     * Splits the text at the separator and joins the trimmed lines with the new separator.
+     * Empty lines at the end are dropped.
+     */
     private static String trimAndFixLineBreak(String text, String separator, String newSeparator) {
-        StringBuilder res = new StringBuilder();
-        for (String line : text.split(separator)) {
-            res.append(line.trim()).append(newSeparator);
+        StringBuilder res = new StringBuilder(text.length());
+        int keptLength = 0;
+        int lineStart = 0;
+        while (lineStart <= text.length()) {
+            int lineEnd = text.indexOf(separator, lineStart);
+            if (lineEnd < 0) {
+                lineEnd = text.length();
+            }
+            if (lineStart > 0) {
+                res.append(newSeparator);
+            }
+            int trimmedStart = lineStart;
+            int trimmedEnd = lineEnd;
+            while (trimmedStart < trimmedEnd && text.charAt(trimmedStart) <= ' ') {
+                trimmedStart++;
+            }
+            while (trimmedEnd > trimmedStart && text.charAt(trimmedEnd - 1) <= ' ') {
+                trimmedEnd--;
+            }
+            res.append(text, trimmedStart, trimmedEnd);
+            if (lineEnd > lineStart) {
+                keptLength = res.length();
+            }
+            lineStart = lineEnd + separator.length();
         }
-        res.delete(res.lastIndexOf(newSeparator), res.length());
+        res.setLength(keptLength);
         return res.toString();
     }
+
+    private static class ConversionKey {
+        private final String javadoc;
+        private final TemplateFormatting templateFormatting;
+
+        ConversionKey(String javadoc, TemplateFormatting templateFormatting) {
+            this.javadoc = javadoc;
+            this.templateFormatting = templateFormatting;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ConversionKey)) {
+                return false;
+            }
+            ConversionKey that = (ConversionKey) o;
+            return javadoc.equals(that.javadoc) && templateFormatting == that.templateFormatting;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * javadoc.hashCode() + System.identityHashCode(templateFormatting);
+        }
+    }
 }
@@ -0,0 +1,192 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Core
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.javadoc;
+
+import static com.fasterxml.jackson.core.JsonToken.FIELD_NAME;
+import static com.fasterxml.jackson.core.JsonToken.START_OBJECT;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+
+/**
+ * Javadoc of a class that only deserializes the fields and methods that are looked up.
+ * <p>
+ * On creation, the JSON is streamed once to read the class comment and to remember where
+ * the Javadoc of each member starts and ends. The JSON is kept in its serialized form and
+ * a member is only parsed on first access.
+ */
+class LazyClassJavadoc extends ClassJavadoc {
+    private static final Logger log = getLogger(JavadocReader.class);
+    private static final String COMMENT = "comment";
+    private static final String INHERITANCE_RESOLVED = "inheritanceResolved";
+    private static final String FIELDS = "fields";
+    private static final String METHODS = "methods";
+    private static final String COMPACT_COMMENT = "c";
+    private static final String COMPACT_INHERITANCE_RESOLVED = "i";
+    private static final String COMPACT_FIELDS = "f";
+    private static final String COMPACT_METHODS = "m";
+
+    private final byte[] json;
+    private final ObjectReader fieldReader;
+    private final ObjectReader methodReader;
+    private final StringPool pool;
+    private final String comment;
+    private final boolean inheritanceResolved;
+    private final Map<String, Range> fieldRanges;
+    private final Map<String, Range> methodRanges;
+    private final Map<String, FieldJavadoc> fields = new ConcurrentHashMap<>();
+    private final Map<String, MethodJavadoc> methods = new ConcurrentHashMap<>();
+
+    private LazyClassJavadoc(byte[] json, ObjectMapper mapper, StringPool pool, String comment,
+            boolean inheritanceResolved, Map<String, Range> fieldRanges,
+            Map<String, Range> methodRanges) {
+        this.json = json;
+        this.fieldReader = mapper.readerFor(FieldJavadoc.class);
+        this.methodReader = mapper.readerFor(MethodJavadoc.class);
+        this.pool = pool;
+        this.comment = pool.intern(comment);
+        this.inheritanceResolved = inheritanceResolved;
+        this.fieldRanges = fieldRanges;
+        this.methodRanges = methodRanges;
+    }
+
+    /**
+     * Indexes the members of the given JSON without deserializing them.
+     *
+     * @param json UTF-8 encoded JSON as written by the JSON doclet
+     * @param mapper mapper used to deserialize the members on access
+     * @param pool   pool for the strings of the deserialized members
+     */
+    static LazyClassJavadoc parse(byte[] json, ObjectMapper mapper, StringPool pool)
+            throws IOException {
+        String comment = null;
+        boolean inheritanceResolved = false;
+        Map<String, Range> fieldRanges = new HashMap<>();
+        Map<String, Range> methodRanges = new HashMap<>();
+        try (JsonParser parser = mapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != START_OBJECT) {
+                throw new JsonParseException(parser, "Expected Javadoc of a class as JSON object");
+            }
+            while (parser.nextToken() == FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (COMMENT.equals(name) || COMPACT_COMMENT.equals(name)) {
+                    comment = parser.getValueAsString();
+                } else if (INHERITANCE_RESOLVED.equals(name)
+                        || COMPACT_INHERITANCE_RESOLVED.equals(name)) {
+                    inheritanceResolved = parser.getValueAsBoolean();
+                } else if ((FIELDS.equals(name) || COMPACT_FIELDS.equals(name))
+                        && value == START_OBJECT) {
+                    indexMembers(parser, fieldRanges);
+                } else if ((METHODS.equals(name) || COMPACT_METHODS.equals(name))
+                        && value == START_OBJECT) {
+                    indexMembers(parser, methodRanges);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return new LazyClassJavadoc(json, mapper, pool, comment, inheritanceResolved, fieldRanges,
+                methodRanges);
+    }
+
+    private static void indexMembers(JsonParser parser, Map<String, Range> ranges)
+            throws IOException {
+        while (parser.nextToken() == FIELD_NAME) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            long start = parser.getTokenLocation().getByteOffset();
+            parser.skipChildren();
+            long end = parser.getCurrentLocation().getByteOffset();
+            ranges.put(name, new Range((int) start, (int) (end - start)));
+        }
+    }
+
+    @Override
+    public String getClassComment() {
+        return comment;
+    }
+
+    @Override
+    boolean isInheritanceResolved() {
+        return inheritanceResolved;
+    }
+
+    @Override
+    FieldJavadoc getField(String fieldName) {
+        FieldJavadoc fieldJavadoc = fields.get(fieldName);
+        if (fieldJavadoc == null) {
+            fieldJavadoc = readMember(fieldReader, fieldRanges.get(fieldName));
+            if (fieldJavadoc != null) {
+                fieldJavadoc = fieldJavadoc.compact(pool);
+                fields.put(fieldName, fieldJavadoc);
+            }
+        }
+        return fieldJavadoc;
+    }
+
+    @Override
+    MethodJavadoc getMethod(String methodName) {
+        MethodJavadoc methodJavadoc = methods.get(methodName);
+        if (methodJavadoc == null) {
+            methodJavadoc = readMember(methodReader, methodRanges.get(methodName));
+            if (methodJavadoc != null) {
+                methodJavadoc = methodJavadoc.compact(pool);
+                methods.put(methodName, methodJavadoc);
+            }
+        }
+        return methodJavadoc;
+    }
+
+    private <T> T readMember(ObjectReader reader, Range range) {
+        if (range == null) {
+            return null;
+        }
+        try {
+            return reader.readValue(json, range.offset, range.length);
+        } catch (IOException e) {
+            log.error("Failed to read Javadoc of member at offset {}", range.offset, e);
+            return null;
+        }
+    }
+
+    /**
+     * Position of the JSON value of a member.
+     */
+    private static class Range {
+        private final int offset;
+        private final int length;
+
+        Range(int offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
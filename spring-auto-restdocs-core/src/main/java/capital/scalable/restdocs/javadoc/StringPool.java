@@ -0,0 +1,42 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Core
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.javadoc;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pool of the comments and names of loaded Javadoc, so that equal strings of different
+ * classes, e.g. of overridden methods or copied boilerplate, are only kept once.
+ */
+class StringPool {
+    private final Map<String, String> strings = new ConcurrentHashMap<>();
+
+    /**
+     * @return the pooled string equal to the given one or {@code null} for {@code null}
+     */
+    String intern(String string) {
+        if (string == null) {
+            return null;
+        }
+        String pooled = strings.putIfAbsent(string, string);
+        return pooled != null ? pooled : string;
+    }
+}
@@ -36,7 +36,7 @@ import java.util.stream.Stream;
 import capital.scalable.restdocs.constraints.ConstraintReader;
 import capital.scalable.restdocs.i18n.SnippetTranslationResolver;
 import capital.scalable.restdocs.jackson.FieldDescriptors;
-import capital.scalable.restdocs.jackson.FieldDocumentationGenerator;
+import capital.scalable.restdocs.jackson.FieldDescriptorsCache;
 import capital.scalable.restdocs.jackson.TypeMapping;
 import capital.scalable.restdocs.javadoc.JavadocReader;
 import capital.scalable.restdocs.section.SectionSupport;
@@ -79,10 +79,9 @@ public abstract class AbstractJacksonFieldSnippet extends StandardTableSnippet i
         }
 
         try {
-            FieldDocumentationGenerator generator = new FieldDocumentationGenerator(
-                    objectMapper.writer(), objectMapper.getDeserializationConfig(), javadocReader,
-                    constraintReader, typeMapping, translationResolver, skipAcessor);
-            FieldDescriptors fieldDescriptors = generator.generateDocumentation(types, objectMapper.getTypeFactory());
+            FieldDescriptors fieldDescriptors = FieldDescriptorsCache.shared().getOrGenerate(types,
+                    objectMapper, javadocReader, constraintReader, typeMapping, translationResolver,
+                    skipAcessor);
 
             if (shouldFailOnUndocumentedFields()) {
                 assertAllDocumented(fieldDescriptors.values(),
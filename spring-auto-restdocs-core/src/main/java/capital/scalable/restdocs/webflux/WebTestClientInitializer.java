@@ -49,6 +49,13 @@ public class WebTestClientInitializer implements HandlerAdapter, Ordered {
      */
     private HandlerMethod handlerMethod;
 
+    /**
+     * Object mapper and constraint reader of the last operation, reused by later calls of
+     * {@link #prepareSnippets(ApplicationContext, TypeMapping)}.
+     */
+    private ObjectMapper objectMapper;
+    private ConstraintReader constraintReader;
+
     @Override
     public boolean supports(Object handler) {
         // if a handler method is set: remember it
@@ -65,6 +72,16 @@ public class WebTestClientInitializer implements HandlerAdapter, Ordered {
         return Mono.empty();
     }
 
+    private synchronized ConstraintReader constraintReader(ObjectMapper objectMapper) {
+        if (constraintReader == null || this.objectMapper != objectMapper) {
+            this.objectMapper = objectMapper;
+            this.constraintReader = ConstraintReaderImpl.create(objectMapper,
+                    SnippetTranslationManager.getDefaultResolver(),
+                    new DynamicResourceBundleConstraintDescriptionResolver());
+        }
+        return constraintReader;
+    }
+
     @Override
     public int getOrder() {
         // make sure that this handler always gets called
@@ -102,6 +119,12 @@ public class WebTestClientInitializer implements HandlerAdapter, Ordered {
             context.getBean(DispatcherHandler.class).setApplicationContext(context);
         }
 
+        // create ConstraintReader once per context, so that field descriptors can be cached
+        // across operations and tests:
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        ConstraintReader constraintReader =
+                context.getBean(WebTestClientInitializer.class).constraintReader(objectMapper);
+
         // create dummy snippet:
         return operation -> {
             // put HandlerMethod in operation attributes:
@@ -110,17 +133,14 @@ public class WebTestClientInitializer implements HandlerAdapter, Ordered {
             operation.getAttributes().put(HandlerMethod.class.getName(), handlerMethod);
 
             // put ObjectMapper in operation attributes:
-            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
             operation.getAttributes().put(ObjectMapper.class.getName(), objectMapper);
 
             // create JavadocReader and put it in operation attributes:
             operation.getAttributes().put(JavadocReader.class.getName(),
                     JavadocReaderImpl.createWithSystemProperty());
 
-            // create ConstraintReader and put it in operation attributes:
-            operation.getAttributes().put(ConstraintReader.class.getName(),
-                    ConstraintReaderImpl.create(objectMapper, SnippetTranslationManager.getDefaultResolver(),
-                            new DynamicResourceBundleConstraintDescriptionResolver()));
+            // put ConstraintReader in operation attributes:
+            operation.getAttributes().put(ConstraintReader.class.getName(), constraintReader);
 
             // create TypeMapping and put it in operation attributes:
             operation.getAttributes().put(TypeMapping.class.getName(),
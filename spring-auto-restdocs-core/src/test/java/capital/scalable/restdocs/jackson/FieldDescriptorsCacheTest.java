@@ -0,0 +1,183 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Core
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.jackson;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import capital.scalable.restdocs.constraints.ConstraintReader;
+import capital.scalable.restdocs.i18n.SnippetTranslationManager;
+import capital.scalable.restdocs.i18n.SnippetTranslationResolver;
+import capital.scalable.restdocs.javadoc.JavadocReader;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.restdocs.payload.FieldDescriptor;
+import org.springframework.test.web.servlet.MvcResult;
+
+public class FieldDescriptorsCacheTest {
+
+    private final FieldDescriptorsCache cache = new FieldDescriptorsCache();
+    private final JavadocReader javadocReader = mock(JavadocReader.class);
+    private final ConstraintReader constraintReader = mock(ConstraintReader.class);
+    private final SnippetTranslationResolver translationResolver =
+            SnippetTranslationManager.getDefaultResolver();
+    private final Type[] types = {Item.class};
+
+    @Test
+    public void reusesFieldDescriptors() throws Exception {
+        ObjectMapper mapper = createMapper();
+        when(javadocReader.resolveFieldComment(Item.class, "name")).thenReturn("The name");
+
+        generate(mapper, new TypeMapping(), null);
+        FieldDescriptors second = generate(mapper, new TypeMapping(), null);
+
+        assertThat(second.values().iterator().next().getDescription(), is("The name"));
+        verify(javadocReader, times(1)).resolveFieldComment(Item.class, "name");
+        assertThat(cache.size(), is(1));
+    }
+
+    @Test
+    public void returnsCopiesOfCachedFieldDescriptors() throws Exception {
+        ObjectMapper mapper = createMapper();
+        FieldDescriptors fieldDescriptors = generate(mapper, new TypeMapping(), null);
+        FieldDescriptor descriptor = fieldDescriptors.values().iterator().next();
+        Object description = descriptor.getDescription();
+        List<String> optionals = (List<String>) descriptor.getAttributes().get("optionals");
+        List<String> originalOptionals = new ArrayList<>(optionals);
+        descriptor.description("Changed");
+        optionals.add("Changed");
+        fieldDescriptors.putIfAbsent("other", fieldWithPath("other"));
+
+        fieldDescriptors = generate(mapper, new TypeMapping(), null);
+
+        assertThat(fieldDescriptors.values().size(), is(1));
+        descriptor = fieldDescriptors.values().iterator().next();
+        assertThat(descriptor.getPath(), is("name"));
+        assertThat(descriptor.getDescription(), is(description));
+        assertThat(descriptor.getAttributes().get("optionals"), is(originalOptionals));
+    }
+
+    @Test
+    public void separatesEntriesByConfiguration() throws Exception {
+        ObjectMapper mapper = createMapper();
+        generate(mapper, new TypeMapping(), null);
+
+        generate(mapper, new TypeMapping(), JsonProperty.Access.READ_ONLY);
+        assertThat(cache.size(), is(2));
+        generate(mapper, new TypeMapping().mapSubtypes(Item.class, SpecialItem.class), null);
+        assertThat(cache.size(), is(3));
+        generate(createMapper(), new TypeMapping(), null);
+        assertThat(cache.size(), is(4));
+        mapper.configure(DeserializationFeature.FAIL_ON_NULL_FOR_PRIMITIVES, true);
+        generate(mapper, new TypeMapping(), null);
+        assertThat(cache.size(), is(5));
+    }
+
+    @Test
+    public void copiesTypeMapping() throws Exception {
+        ObjectMapper mapper = createMapper();
+        TypeMapping typeMapping = new TypeMapping();
+        generate(mapper, typeMapping, null);
+
+        typeMapping.mapSubtypes(Item.class, SpecialItem.class);
+        generate(mapper, typeMapping, null);
+
+        assertThat(cache.size(), is(2));
+    }
+
+    @Test
+    public void removesLeastRecentlyUsedEntries() throws Exception {
+        FieldDescriptorsCache cache = new FieldDescriptorsCache(1);
+        ObjectMapper mapper = createMapper();
+        cache.getOrGenerate(types, mapper, javadocReader, constraintReader, new TypeMapping(),
+                translationResolver, null);
+        cache.getOrGenerate(new Type[]{SpecialItem.class}, mapper, javadocReader,
+                constraintReader, new TypeMapping(), translationResolver, null);
+
+        assertThat(cache.size(), is(1));
+    }
+
+    @Test
+    public void reusesFieldDescriptorsOfPreviousPrepareJackson() throws Exception {
+        ObjectMapper mapper = createMapper();
+        when(javadocReader.resolveFieldComment(Item.class, "name")).thenReturn("The name");
+
+        prepareAndGenerate(mapper);
+        FieldDescriptors fieldDescriptors = prepareAndGenerate(mapper);
+
+        assertThat(fieldDescriptors.values().iterator().next().getDescription(), is("The name"));
+        verify(javadocReader, times(1)).resolveFieldComment(Item.class, "name");
+        assertThat(cache.size(), is(1));
+    }
+
+    /**
+     * Generates the field descriptors with the object mapper and constraint reader set up by a
+     * new {@link JacksonResultHandlers#prepareJackson(ObjectMapper)}, as done for every test.
+     */
+    private FieldDescriptors prepareAndGenerate(ObjectMapper mapper) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        Map<String, Object> configuration = new HashMap<>();
+        request.setAttribute("org.springframework.restdocs.configuration", configuration);
+        MvcResult result = mock(MvcResult.class);
+        when(result.getRequest()).thenReturn(request);
+        JacksonResultHandlers.prepareJackson(mapper).handle(result);
+
+        return cache.getOrGenerate(types,
+                (ObjectMapper) configuration.get(ObjectMapper.class.getName()), javadocReader,
+                (ConstraintReader) configuration.get(ConstraintReader.class.getName()),
+                new TypeMapping(), translationResolver, null);
+    }
+
+    private FieldDescriptors generate(ObjectMapper mapper, TypeMapping typeMapping,
+            JsonProperty.Access skipAccessor) throws Exception {
+        return cache.getOrGenerate(types, mapper, javadocReader, constraintReader, typeMapping,
+                translationResolver, skipAccessor);
+    }
+
+    private ObjectMapper createMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.setVisibility(mapper.getSerializationConfig().getDefaultVisibilityChecker()
+                .withFieldVisibility(JsonAutoDetect.Visibility.ANY));
+        return mapper;
+    }
+
+    private static class Item {
+        private String name;
+    }
+
+    private static class SpecialItem extends Item {
+        private String special;
+    }
+}
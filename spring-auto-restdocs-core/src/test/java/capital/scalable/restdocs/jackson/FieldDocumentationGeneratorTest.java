@@ -26,6 +26,8 @@ import static java.util.Collections.singletonList;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
 
@@ -497,6 +499,82 @@ public class FieldDocumentationGeneratorTest {
                 is(descriptor("y", "String", "A field Y (Y)", "true (Y)")));
     }
 
+    @Test
+    public void testGenerateDocumentationForSubTypesInParallel() throws Exception {
+        // given
+        ObjectMapper mapper = createMapper();
+
+        mockFieldComment(Plain.class, "field", "A field");
+        mockFieldComment(Plain.class, "overriddenField", "An overridden field");
+        mockFieldComment(PlainX.class, "overriddenField", "Custom 1");
+        mockFieldComment(PlainX.class, "x", "A field X");
+        mockFieldComment(PlainY.class, "overriddenField", "Custom 2");
+        mockFieldComment(PlainY.class, "y", "A field Y");
+        mockTypeSpecifier(Plain.class, "");
+        mockTypeSpecifier(PlainX.class, "(X)");
+        mockTypeSpecifier(PlainY.class, "(Y)");
+        mockConstraint(PlainX.class, "overriddenField", "Size[x]");
+        mockConstraint(PlainY.class, "overriddenField", "Size[y]");
+
+        TypeMapping typeMapping = new TypeMapping();
+        typeMapping.mapSubtypes(Plain.class, PlainX.class, PlainY.class);
+
+        FieldDocumentationGenerator sequentialGenerator =
+                new FieldDocumentationGenerator(mapper.writer(),
+                        mapper.getDeserializationConfig(), javadocReader, constraintReader, typeMapping,
+                        SnippetTranslationManager.getDefaultResolver(), null, false);
+        FieldDocumentationGenerator parallelGenerator =
+                new FieldDocumentationGenerator(mapper.writer(),
+                        mapper.getDeserializationConfig(), javadocReader, constraintReader, typeMapping,
+                        SnippetTranslationManager.getDefaultResolver(), null, true);
+        Type type = Plain.class;
+
+        // when
+        List<ExtendedFieldDescriptor> sequential = cast(sequentialGenerator
+                .generateDocumentation(type, mapper.getTypeFactory()).values());
+        List<ExtendedFieldDescriptor> parallel = cast(parallelGenerator
+                .generateDocumentation(type, mapper.getTypeFactory()).values());
+
+        // then
+        assertThat(parallel.size(), is(4));
+        assertThat(parallel, is(sequential));
+        assertThat(parallel.get(1),
+                is(descriptor("overriddenField", "String",
+                        "An overridden field<br>Custom 1 (X)<br>Custom 2 (Y)",
+                        Arrays.asList("true", "true (X)", "true (Y)"),
+                        "Size[x] (X)", "Size[y] (Y)")));
+    }
+
+    @Test
+    public void testGenerateDocumentationForSubTypesResolvesInheritedFieldsOnce() throws Exception {
+        // given
+        ObjectMapper mapper = createMapper();
+
+        mockFieldComment(Plain.class, "field", "A field");
+        mockFieldComment(PlainX.class, "x", "A field X");
+        mockFieldComment(PlainY.class, "y", "A field Y");
+
+        TypeMapping typeMapping = new TypeMapping();
+        typeMapping.mapSubtypes(Plain.class, PlainX.class, PlainY.class);
+
+        FieldDocumentationGenerator generator =
+                new FieldDocumentationGenerator(mapper.writer(),
+                        mapper.getDeserializationConfig(), javadocReader, constraintReader, typeMapping,
+                        SnippetTranslationManager.getDefaultResolver(), null);
+        Type type = Plain.class;
+
+        // when
+        List<ExtendedFieldDescriptor> fieldDescriptions = cast(generator
+                .generateDocumentation(type, mapper.getTypeFactory()).values());
+
+        // then
+        assertThat(fieldDescriptions.size(), is(4));
+        assertThat(fieldDescriptions.get(0),
+                is(descriptor("field", "String", "A field", "true")));
+        verify(javadocReader, times(1)).resolveFieldComment(Plain.class, "field");
+        verify(javadocReader, times(1)).resolveFieldComment(PlainX.class, "x");
+    }
+
     @Test
     public void testGenerateDocumentationWithTags() throws Exception {
         // given
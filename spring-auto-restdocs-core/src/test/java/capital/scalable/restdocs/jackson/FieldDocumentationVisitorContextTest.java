@@ -0,0 +1,80 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Core
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.jackson;
+
+import static capital.scalable.restdocs.constraints.ConstraintReader.TYPE_ATTRIBUTE;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import capital.scalable.restdocs.constraints.ConstraintReader;
+import capital.scalable.restdocs.i18n.SnippetTranslationManager;
+import capital.scalable.restdocs.javadoc.JavadocReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.junit.Test;
+import org.springframework.restdocs.payload.FieldDescriptor;
+
+public class FieldDocumentationVisitorContextTest {
+
+    private final JavadocReader javadocReader = mock(JavadocReader.class);
+    private final ConstraintReader constraintReader = mock(ConstraintReader.class);
+    private final FieldDocumentationVisitorContext context = new FieldDocumentationVisitorContext(
+            javadocReader, constraintReader, new ObjectMapper().getDeserializationConfig(),
+            SnippetTranslationManager.getDefaultResolver());
+
+    @Test
+    public void mergesFieldsWithTheSamePath() {
+        when(javadocReader.resolveFieldComment(Cat.class, "name")).thenReturn("Name of the cat");
+        when(javadocReader.resolveFieldComment(Dog.class, "name")).thenReturn("Name of the dog");
+        when(constraintReader.getTypeSpecifier(Cat.class)).thenReturn("(cat)");
+        when(constraintReader.getTypeSpecifier(Dog.class)).thenReturn("(dog)");
+
+        context.addField(fieldInfo(Cat.class, "name", "name"), "String");
+        context.addField(fieldInfo(Cat.class, "lives", "lives"), "Integer");
+        context.addField(fieldInfo(Dog.class, "name", "name"), "String");
+        context.addField(fieldInfo(Dog.class, "name", "name"), "String");
+
+        List<FieldDescriptor> fields = new ArrayList<>(context.getFields());
+        assertThat(fields.size(), is(2));
+        assertThat(fields.get(0).getPath(), is("name"));
+        assertThat(fields.get(0).getDescription(),
+                is("Name of the cat (cat)<br>Name of the dog (dog)"));
+        assertThat(fields.get(0).getAttributes().get(TYPE_ATTRIBUTE), is((Object) Dog.class));
+        assertThat(fields.get(1).getPath(), is("lives"));
+    }
+
+    private InternalFieldInfo fieldInfo(Class<?> javaBaseClass, String javaFieldName,
+            String jsonFieldPath) {
+        return new InternalFieldInfo(javaBaseClass, javaFieldName,
+                TypeFactory.defaultInstance().constructType(String.class), jsonFieldPath, true,
+                false);
+    }
+
+    private static class Cat {
+    }
+
+    private static class Dog {
+    }
+}
@@ -0,0 +1,86 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Core
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.jackson;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.Test;
+
+public class PersistentSetTest {
+
+    @Test
+    public void containsAddedElements() {
+        PersistentSet<Integer> set = PersistentSet.empty();
+        for (int i = 0; i < 5000; i++) {
+            // spread over all levels of the trie, including negative hash codes
+            set = set.with(i * 0x9E3779B9);
+        }
+
+        for (int i = 0; i < 5000; i++) {
+            assertThat(set.contains(i * 0x9E3779B9), is(true));
+            assertThat(set.contains(i * 0x9E3779B9 + 1), is(false));
+        }
+    }
+
+    @Test
+    public void sharesStructureWithoutModifyingPreviousSets() {
+        PersistentSet<String> first = PersistentSet.<String>empty().with("a");
+        PersistentSet<String> second = first.with("b");
+
+        assertThat(first.contains("b"), is(false));
+        assertThat(second.contains("a"), is(true));
+        assertThat(second.contains("b"), is(true));
+        assertThat(second.with("a"), sameInstance(second));
+    }
+
+    @Test
+    public void containsElementsWithSameHashCode() {
+        PersistentSet<SameHash> set = PersistentSet.<SameHash>empty()
+                .with(new SameHash("a"))
+                .with(new SameHash("b"));
+        PersistentSet<SameHash> updated = set.with(new SameHash("c"));
+
+        assertThat(updated.contains(new SameHash("a")), is(true));
+        assertThat(updated.contains(new SameHash("b")), is(true));
+        assertThat(updated.contains(new SameHash("c")), is(true));
+        assertThat(set.contains(new SameHash("c")), is(false));
+        assertThat(updated.with(new SameHash("b")), sameInstance(updated));
+    }
+
+    private static class SameHash {
+        private final String value;
+
+        SameHash(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SameHash && ((SameHash) o).value.equals(value);
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Core
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.jackson;
+
+import static java.util.Collections.singletonList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.junit.Test;
+
+public class TypeRegistryTest {
+
+    private final TypeFactory typeFactory = TypeFactory.defaultInstance();
+
+    @Test
+    public void nestedLevelsSeeTypesOfParentLevels() {
+        TypeRegistry root = new TypeRegistry(new TypeMapping(),
+                singletonList(typeFactory.constructType(String.class)));
+        TypeRegistry nested = root.withVisitedTypes(
+                singletonList(typeFactory.constructType(Integer.class)));
+
+        assertThat(nested.wasVisited(typeFactory.constructType(String.class)), is(true));
+        assertThat(nested.wasVisited(typeFactory.constructType(Integer.class)), is(true));
+        assertThat(root.wasVisited(typeFactory.constructType(Integer.class)), is(false));
+        assertThat(nested.wasVisited(typeFactory.constructType(Long.class)), is(false));
+    }
+
+    @Test
+    public void keepsRegistryWhenAllTypesWereVisited() {
+        TypeRegistry root = new TypeRegistry(new TypeMapping(),
+                singletonList(typeFactory.constructType(String.class)));
+
+        assertThat(root.withVisitedTypes(singletonList(typeFactory.constructType(String.class))),
+                sameInstance(root));
+    }
+
+    @Test
+    public void comparesRawClasses() {
+        TypeRegistry registry = new TypeRegistry(new TypeMapping(),
+                typeFactory.constructCollectionType(List.class, String.class));
+
+        assertThat(registry.wasVisited(
+                typeFactory.constructCollectionType(List.class, Integer.class)), is(true));
+    }
+}
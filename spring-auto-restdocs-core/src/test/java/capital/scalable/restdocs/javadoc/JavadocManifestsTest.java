@@ -0,0 +1,115 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Core
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.javadoc;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.util.StreamUtils;
+
+public class JavadocManifestsTest {
+
+    private static final String JSON_PATH = "capital/scalable/model/Dto.json";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void loadManifestFromJar() throws IOException {
+        File jar = temporaryFolder.newFile("model.jar");
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            addEntry(out, JavadocManifests.FILE_NAME, "# documented classes\n" + JSON_PATH + "\n");
+            addEntry(out, JSON_PATH, "{\"comment\":\"Dto comment\"}");
+        }
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{jar.toURI().toURL()}, null)) {
+            JavadocManifests manifests = JavadocManifests.load(classLoader);
+
+            URL url = manifests.findJsonFile(JSON_PATH);
+            assertThat(url, notNullValue());
+            try (InputStream in = url.openStream()) {
+                assertThat(StreamUtils.copyToString(in, UTF_8), is("{\"comment\":\"Dto comment\"}"));
+            }
+            assertThat(manifests.findJsonFile("capital/scalable/model/Other.json"), nullValue());
+            assertThat(manifests.findInIndex(JSON_PATH), nullValue());
+            URL codeSource = jar.toURI().toURL();
+            assertThat(manifests.coversPackageOf("capital/scalable/model/Other.json", codeSource),
+                    is(true));
+            assertThat(manifests.coversPackageOf("capital/scalable/Other.json", codeSource),
+                    is(false));
+            assertThat(manifests.coversPackageOf("capital/scalable/model/Other.json", null),
+                    is(false));
+        }
+    }
+
+    @Test
+    public void noManifest() {
+        JavadocManifests manifests =
+                JavadocManifests.load(new URLClassLoader(new URL[0], null));
+        assertThat(manifests.findJsonFile(JSON_PATH), nullValue());
+        assertThat(manifests.coversPackageOf(JSON_PATH, null), is(false));
+    }
+
+    @Test
+    public void splitPackage() throws IOException {
+        File jar = temporaryFolder.newFile("model.jar");
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            addEntry(out, JavadocManifests.FILE_NAME, JSON_PATH + "\n");
+            addEntry(out, JSON_PATH, "{\"comment\":\"Dto comment\"}");
+        }
+        File otherJar = temporaryFolder.newFile("other.jar");
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(otherJar))) {
+            addEntry(out, "capital/scalable/model/Other.json", "{\"comment\":\"Other comment\"}");
+        }
+
+        try (URLClassLoader classLoader = new URLClassLoader(
+                new URL[]{jar.toURI().toURL(), otherJar.toURI().toURL()}, null)) {
+            JavadocManifests manifests = JavadocManifests.load(classLoader);
+
+            // The class is loaded from the jar without manifest and has to be looked up.
+            assertThat(manifests.coversPackageOf("capital/scalable/model/Other.json",
+                    otherJar.toURI().toURL()), is(false));
+            assertThat(manifests.coversPackageOf("capital/scalable/model/Other.json",
+                    jar.toURI().toURL()), is(true));
+        }
+    }
+
+    private static void addEntry(JarOutputStream out, String name, String content)
+            throws IOException {
+        out.putNextEntry(new JarEntry(name));
+        out.write(content.getBytes(UTF_8));
+        out.closeEntry();
+    }
+}
@@ -21,17 +21,36 @@ package capital.scalable.restdocs.javadoc;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
-
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class JavadocReaderImplTest {
 
     private static final String SOURCE_DIR = JavadocReaderImplTest.class.
             getClassLoader().getResource("json").getPath();
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void resolveFieldComment() {
         JavadocReader javadocReader = JavadocReaderImpl.createWith(SOURCE_DIR);
@@ -229,6 +248,377 @@ public class JavadocReaderImplTest {
         assertThat(comment, is(""));
     }
 
+    @Test
+    public void excludedPackage() {
+        JavadocReader javadocReader =
+                JavadocReaderImpl.createWith(SOURCE_DIR, "java., capital.scalable.");
+        String comment = javadocReader.resolveFieldComment(SimpleType.class, "simpleField");
+        assertThat(comment, is(""));
+        comment = javadocReader.resolveMethodComment(ClassC.class, "javadocOnClassB");
+        assertThat(comment, is(""));
+    }
+
+    @Test
+    public void resolveCommentsWithLazyParsing() {
+        JavadocReader javadocReader = JavadocReaderImpl.createWith(SOURCE_DIR, "java.", 0);
+
+        String comment = javadocReader.resolveFieldComment(SimpleType.class, "simpleField");
+        assertThat(comment, equalTo("Simple field comment"));
+        comment = javadocReader.resolveFieldTag(SimpleType.class, "simpleField", "deprecated");
+        assertThat(comment, equalTo("Deprecation comment"));
+        comment = javadocReader.resolveMethodTag(SimpleType.class, "simpleMethod", "title");
+        assertThat(comment, equalTo("Simple method title"));
+        comment = javadocReader.resolveMethodParameterComment(SimpleType.class, "simpleMethod",
+                "simpleParameter");
+        assertThat(comment, equalTo("Simple parameter comment"));
+        comment = javadocReader.resolveMethodComment(ClassC.class, "javadocOnClassB");
+        assertThat(comment, equalTo("Method comment on class B"));
+        comment = javadocReader.resolveFieldComment(SimpleType.class, "simpleField2");
+        assertThat(comment, is(""));
+        comment = javadocReader.resolveMethodComment(SimpleType.class, "simpleMethod2");
+        assertThat(comment, is(""));
+    }
+
+    @Test
+    public void equalCommentsAreShared() throws IOException {
+        writeJson("SimpleType", "{\"fields\":{\"simpleField\":{\"comment\":\"Shared comment\"}}}");
+        writeJson("ClassB", "{\"fields\":{\"otherField\":{\"comment\":\"Shared comment\"}}}");
+        JavadocReader javadocReader =
+                JavadocReaderImpl.createWith(temporaryFolder.getRoot().getPath());
+
+        String comment = javadocReader.resolveFieldComment(SimpleType.class, "simpleField");
+        String otherComment = javadocReader.resolveFieldComment(ClassB.class, "otherField");
+        assertThat(comment, equalTo("Shared comment"));
+        assertThat(otherComment, sameInstance(comment));
+    }
+
+    @Test
+    public void statistics() {
+        JavadocReaderImpl javadocReader = JavadocReaderImpl.createWith(SOURCE_DIR);
+        javadocReader.resolveFieldComment(SimpleType.class, "simpleField");
+        javadocReader.resolveFieldComment(SimpleType.class, "simpleField");
+        javadocReader.resolveMethodComment(ClassC.class, "javadocOnInterfaceA");
+
+        JavadocStatistics statistics = javadocReader.getStatistics();
+        assertThat(statistics.getCacheHits(), is(1L));
+        // SimpleType, ClassC, ClassB and InterfaceA
+        assertThat(statistics.getCacheMisses(), is(4L));
+        assertThat(statistics.getFilesFound(), is(4L));
+        assertThat(statistics.getHierarchyWalks(), is(1L));
+        assertThat(statistics.getMaxHierarchyDepth(), is(3L));
+        assertThat(statistics.getBytesParsed() > 0, is(true));
+    }
+
+    @Test
+    public void brokenJsonFileOnClasspathIsNotFound() {
+        JavadocReaderImpl javadocReader = JavadocReaderImpl.createWith(null);
+        String comment = javadocReader.resolveFieldComment(BrokenType.class, "brokenField");
+        assertThat(comment, equalTo(""));
+        assertThat(javadocReader.getStatistics().getFilesFound(), is(0L));
+    }
+
+    @Test
+    public void sharedReaderWithSystemProperty() {
+        JavadocReader javadocReader = JavadocReaderImpl.createWithSystemProperty();
+        assertThat(JavadocReaderImpl.createWithSystemProperty(), sameInstance(javadocReader));
+    }
+
+    @Test
+    public void reloadModifiedJsonFile() throws IOException {
+        File jsonFile = writeSimpleTypeJson("First comment");
+        JavadocReader javadocReader =
+                JavadocReaderImpl.createWith(temporaryFolder.getRoot().getPath());
+        String comment = javadocReader.resolveFieldComment(SimpleType.class, "simpleField");
+        assertThat(comment, equalTo("First comment"));
+
+        long lastModified = jsonFile.lastModified();
+        writeSimpleTypeJson("Second comment");
+        jsonFile.setLastModified(lastModified + 2000);
+        comment = javadocReader.resolveFieldComment(SimpleType.class, "simpleField");
+        assertThat(comment, equalTo("Second comment"));
+    }
+
+    @Test
+    public void findJsonFileCreatedAfterLookup() throws IOException {
+        File otherJsonFile = writeJson("InterfaceA", "{}");
+        JavadocReader javadocReader =
+                JavadocReaderImpl.createWith(temporaryFolder.getRoot().getPath());
+        String comment = javadocReader.resolveMethodComment(ClassB.class, "javadocOnClassB");
+        assertThat(comment, equalTo(""));
+
+        File packageDir = otherJsonFile.getParentFile();
+        long lastModified = packageDir.lastModified();
+        writeJson("ClassB", "{\"methods\":{\"javadocOnClassB\":{\"comment\":\"New comment\"}}}");
+        packageDir.setLastModified(lastModified + 2000);
+        comment = javadocReader.resolveMethodComment(ClassB.class, "javadocOnClassB");
+        assertThat(comment, equalTo("New comment"));
+    }
+
+    @Test
+    public void modificationCheckIsThrottled() throws IOException {
+        File jsonFile = writeSimpleTypeJson("First comment");
+        JavadocReader javadocReader = JavadocReaderImpl.createWith(
+                temporaryFolder.getRoot().getPath(), "java.", 64 * 1024, 60_000);
+        String comment = javadocReader.resolveFieldComment(SimpleType.class, "simpleField");
+        assertThat(comment, equalTo("First comment"));
+
+        // not checked again within the interval
+        long lastModified = jsonFile.lastModified();
+        writeSimpleTypeJson("Second comment");
+        jsonFile.setLastModified(lastModified + 2000);
+        comment = javadocReader.resolveFieldComment(SimpleType.class, "simpleField");
+        assertThat(comment, equalTo("First comment"));
+    }
+
+    @Test
+    public void preload() throws Exception {
+        File jsonFile = writeSimpleTypeJson("Preloaded comment");
+        long lastModified = jsonFile.lastModified();
+        JavadocReaderImpl javadocReader =
+                JavadocReaderImpl.createWith(temporaryFolder.getRoot().getPath());
+        javadocReader.preload().get();
+
+        // same modification time, so the preloaded Javadoc is still used
+        writeSimpleTypeJson("Changed comment");
+        jsonFile.setLastModified(lastModified);
+        String comment = javadocReader.resolveFieldComment(SimpleType.class, "simpleField");
+        assertThat(comment, equalTo("Preloaded comment"));
+    }
+
+    @Test
+    public void preloadOtherPackage() throws Exception {
+        File jsonFile = writeSimpleTypeJson("Preloaded comment");
+        long lastModified = jsonFile.lastModified();
+        JavadocReaderImpl javadocReader =
+                JavadocReaderImpl.createWith(temporaryFolder.getRoot().getPath());
+        javadocReader.preload("capital.scalable.restdocs.jackson").get();
+
+        writeSimpleTypeJson("Changed comment");
+        jsonFile.setLastModified(lastModified);
+        String comment = javadocReader.resolveFieldComment(SimpleType.class, "simpleField");
+        assertThat(comment, equalTo("Changed comment"));
+    }
+
+    @Test
+    public void resolveCommentsFromIndexFile() throws IOException {
+        writeIndex("capital/scalable/restdocs/javadoc/JavadocReaderImplTest.SimpleType.json",
+                "{\"fields\":{\"simpleField\":{\"comment\":\"Indexed field comment\"}},"
+                        + "\"methods\":{\"simpleMethod\":{\"comment\":\"Indexed method comment\"}}}");
+        JavadocReader javadocReader =
+                JavadocReaderImpl.createWith(temporaryFolder.getRoot().getPath());
+
+        String comment = javadocReader.resolveFieldComment(SimpleType.class, "simpleField");
+        assertThat(comment, equalTo("Indexed field comment"));
+        comment = javadocReader.resolveMethodComment(SimpleType.class, "simpleMethod");
+        assertThat(comment, equalTo("Indexed method comment"));
+        // neither in the index nor as separate file
+        comment = javadocReader.resolveMethodComment(ClassB.class, "javadocOnClassB");
+        assertThat(comment, equalTo(""));
+    }
+
+    @Test
+    public void fallBackToJsonFileWhenIndexFileIsTruncated() throws IOException {
+        writeIndex("capital/scalable/restdocs/javadoc/JavadocReaderImplTest.SimpleType.json",
+                "{\"fields\":{\"simpleField\":{\"comment\":\"Indexed field comment\"}}}");
+        File indexFile = new File(temporaryFolder.getRoot(), JavadocIndex.FILE_NAME);
+        byte[] index = Files.readAllBytes(indexFile.toPath());
+        Files.write(indexFile.toPath(), Arrays.copyOf(index, index.length - 10));
+        writeSimpleTypeJson("JSON field comment");
+        JavadocReader javadocReader =
+                JavadocReaderImpl.createWith(temporaryFolder.getRoot().getPath());
+
+        String comment = javadocReader.resolveFieldComment(SimpleType.class, "simpleField");
+        assertThat(comment, equalTo("JSON field comment"));
+    }
+
+    /**
+     * Writes an index file with a single class in the format read by {@link JavadocIndex}.
+     */
+    private void writeIndex(String key, String json) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+        int slotCount = 2;
+        int dataOffset = 12 + slotCount * 20;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0x53415244);
+        out.writeInt(1);
+        out.writeInt(slotCount);
+        int usedSlot = key.hashCode() & (slotCount - 1);
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (slot == usedSlot) {
+                out.writeInt(key.hashCode());
+                out.writeInt(dataOffset);
+                out.writeInt(keyBytes.length);
+                out.writeInt(dataOffset + keyBytes.length);
+                out.writeInt(jsonBytes.length);
+            } else {
+                for (int i = 0; i < 5; i++) {
+                    out.writeInt(0);
+                }
+            }
+        }
+        out.write(keyBytes);
+        out.write(jsonBytes);
+        try (FileOutputStream file = new FileOutputStream(
+                new File(temporaryFolder.getRoot(), JavadocIndex.FILE_NAME))) {
+            file.write(bytes.toByteArray());
+        }
+    }
+
+    @Test
+    public void reloadModifiedJsonFileOfSuperClass() throws IOException {
+        File jsonFile = writeJson("ClassB",
+                "{\"methods\":{\"javadocOnClassB\":{\"comment\":\"First comment\"}}}");
+        JavadocReader javadocReader =
+                JavadocReaderImpl.createWith(temporaryFolder.getRoot().getPath());
+        String comment = javadocReader.resolveMethodComment(ClassC.class, "javadocOnClassB");
+        assertThat(comment, equalTo("First comment"));
+
+        long lastModified = jsonFile.lastModified();
+        writeJson("ClassB",
+                "{\"methods\":{\"javadocOnClassB\":{\"comment\":\"Second comment\"}}}");
+        jsonFile.setLastModified(lastModified + 2000);
+        comment = javadocReader.resolveMethodComment(ClassC.class, "javadocOnClassB");
+        assertThat(comment, equalTo("Second comment"));
+    }
+
+    @Test
+    public void resolveMethodCommentWithResolvedInheritance() throws IOException {
+        writeJson("ClassC", "{\"inheritanceResolved\":true,\"methods\":{"
+                + "\"javadocOnInterfaceA\":{\"comment\":\"Resolved comment\"}}}");
+        writeJson("InterfaceA", "{\"methods\":{"
+                + "\"javadocOnClassB\":{\"comment\":\"Comment on interface A\"}}}");
+        JavadocReaderImpl javadocReader =
+                JavadocReaderImpl.createWith(temporaryFolder.getRoot().getPath());
+
+        assertThat(javadocReader.resolveMethodComment(ClassC.class, "javadocOnInterfaceA"),
+                equalTo("Resolved comment"));
+        assertThat(javadocReader.resolveMethodComment(ClassC.class, "javadocOnClassB"),
+                equalTo(""));
+        assertThat(javadocReader.getStatistics().getMaxHierarchyDepth(), is(1L));
+    }
+
+    @Test
+    public void resolveMethodCommentWithResolvedInheritanceAndLazyParsing() throws IOException {
+        writeJson("ClassC", "{\"methods\":{\"javadocOnInterfaceA\":{\"comment\":\"Resolved comment\"}},"
+                + "\"inheritanceResolved\":true}");
+        JavadocReaderImpl javadocReader = JavadocReaderImpl.createWith(
+                temporaryFolder.getRoot().getPath(), "java.,javax.", 0);
+
+        assertThat(javadocReader.resolveMethodComment(ClassC.class, "javadocOnInterfaceA"),
+                equalTo("Resolved comment"));
+        assertThat(javadocReader.getStatistics().getMaxHierarchyDepth(), is(1L));
+    }
+
+    @Test
+    public void resolveCommentsFromCompactJson() throws IOException {
+        writeJson("SimpleType", "{\"f\":{\"simpleField\":{\"c\":\"Compact field\","
+                + "\"t\":{\"title\":\"Compact title\"}}},"
+                + "\"m\":{\"simpleMethod\":{\"c\":\"Compact method\","
+                + "\"p\":{\"simpleParameter\":\"Compact parameter\"}}}}");
+        writeJson("ClassB", "{\"fields\":{\"otherField\":{\"comment\":\"Verbose field\"}}}");
+        assertCompactJsonResolved(
+                JavadocReaderImpl.createWith(temporaryFolder.getRoot().getPath()));
+        assertCompactJsonResolved(JavadocReaderImpl.createWith(
+                temporaryFolder.getRoot().getPath(), "java.,javax.", 0));
+    }
+
+    private void assertCompactJsonResolved(JavadocReader javadocReader) {
+        assertThat(javadocReader.resolveFieldComment(SimpleType.class, "simpleField"),
+                is("Compact field"));
+        assertThat(javadocReader.resolveFieldTag(SimpleType.class, "simpleField", "title"),
+                is("Compact title"));
+        assertThat(javadocReader.resolveMethodComment(SimpleType.class, "simpleMethod"),
+                is("Compact method"));
+        assertThat(javadocReader.resolveMethodParameterComment(SimpleType.class, "simpleMethod",
+                "simpleParameter"), is("Compact parameter"));
+        assertThat(javadocReader.resolveMethodTag(SimpleType.class, "simpleMethod", "see"),
+                is(""));
+        assertThat(javadocReader.resolveFieldComment(ClassB.class, "otherField"),
+                is("Verbose field"));
+    }
+
+    @Test
+    public void recordUsage() throws IOException {
+        JavadocReaderImpl javadocReader = JavadocReaderImpl.createWith(SOURCE_DIR);
+        JavadocUsage usage = new JavadocUsage();
+        javadocReader.setUsage(usage);
+
+        javadocReader.resolveFieldComment(SimpleType.class, "simpleField");
+        javadocReader.resolveMethodComment(ClassC.class, "javadocOnInterfaceA");
+        javadocReader.resolveMethodComment(String.class, "length");
+
+        String prefix = JavadocReaderImplTest.class.getName() + "$";
+        assertThat(new TreeSet<>(usage.getMembers()), equalTo(new TreeSet<>(Arrays.asList(
+                prefix + "SimpleType#simpleField",
+                prefix + "ClassC#javadocOnInterfaceA",
+                prefix + "ClassB#javadocOnInterfaceA",
+                prefix + "InterfaceA#javadocOnInterfaceA"))));
+
+        File usageFile = new File(temporaryFolder.getRoot(), "usage/javadoc-usage");
+        usageFile.getParentFile().mkdirs();
+        Files.write(usageFile.toPath(), "com.example.Other#name\n".getBytes(StandardCharsets.UTF_8));
+        usage.write(usageFile.toPath());
+        assertThat(Files.readAllLines(usageFile.toPath()), equalTo(Arrays.asList(
+                prefix + "ClassB#javadocOnInterfaceA",
+                prefix + "ClassC#javadocOnInterfaceA",
+                prefix + "InterfaceA#javadocOnInterfaceA",
+                prefix + "SimpleType#simpleField",
+                "com.example.Other#name")));
+    }
+
+    @Test
+    public void writeUsageOfTwoReadersConcurrently() throws Exception {
+        JavadocReaderImpl javadocReader = JavadocReaderImpl.createWith(SOURCE_DIR);
+        JavadocUsage usage = new JavadocUsage();
+        javadocReader.setUsage(usage);
+        JavadocReaderImpl otherJavadocReader =
+                JavadocReaderImpl.createWith(temporaryFolder.getRoot().getPath());
+        JavadocUsage otherUsage = new JavadocUsage();
+        otherJavadocReader.setUsage(otherUsage);
+        javadocReader.resolveFieldComment(SimpleType.class, "simpleField");
+        otherJavadocReader.resolveMethodComment(ClassB.class, "javadocOnClassB");
+
+        File usageFile = new File(temporaryFolder.getRoot(), "javadoc-usage");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                for (JavadocUsage readerUsage : Arrays.asList(usage, otherUsage)) {
+                    writes.add(executor.submit(() -> {
+                        readerUsage.write(usageFile.toPath());
+                        return null;
+                    }));
+                }
+            }
+            for (Future<?> write : writes) {
+                write.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        String prefix = JavadocReaderImplTest.class.getName() + "$";
+        assertThat(Files.readAllLines(usageFile.toPath()), equalTo(Arrays.asList(
+                prefix + "ClassB#javadocOnClassB",
+                prefix + "InterfaceA#javadocOnClassB",
+                prefix + "SimpleType#simpleField")));
+    }
+
+    private File writeSimpleTypeJson(String fieldComment) throws IOException {
+        return writeJson("SimpleType",
+                "{\"fields\":{\"simpleField\":{\"comment\":\"" + fieldComment + "\"}}}");
+    }
+
+    private File writeJson(String className, String json) throws IOException {
+        File dir = new File(temporaryFolder.getRoot(), "capital/scalable/restdocs/javadoc");
+        dir.mkdirs();
+        File jsonFile = new File(dir, "JavadocReaderImplTest." + className + ".json");
+        Files.write(jsonFile.toPath(), json.getBytes(StandardCharsets.UTF_8));
+        return jsonFile;
+    }
+
     // json file in src/test/resources/json
     private static class SimpleType {
         private String simpleField;
@@ -267,4 +657,9 @@ public class JavadocReaderImplTest {
 
     private static class NotExisting {
     }
+
+    // broken json file in src/test/resources
+    private static class BrokenType {
+        private String brokenField;
+    }
 }
@@ -0,0 +1,167 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Core
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.javadoc;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.TreeSet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JavadocRegistriesTest {
+    private static final String PREFIX = JavadocRegistriesTest.class.getName() + "$";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void resolveCommentsFromRegistry() {
+        JavadocReader javadocReader = reader(registrar -> {
+            registrar.classComment(PREFIX + "Item", "Item");
+            registrar.fieldComment(PREFIX + "Item", "name", "Name of the item");
+            registrar.fieldTag(PREFIX + "Item", "name", "title", "Name");
+            registrar.methodComment(PREFIX + "Item", "rename", "Renames the item");
+            registrar.methodParameterComment(PREFIX + "Item", "rename", "name", "New name");
+            registrar.methodTag(PREFIX + "Item", "rename", "see", "Other");
+        });
+
+        assertThat(javadocReader.resolveFieldComment(Item.class, "name"),
+                equalTo("Name of the item"));
+        assertThat(javadocReader.resolveFieldTag(Item.class, "name", "title"), equalTo("Name"));
+        assertThat(javadocReader.resolveMethodComment(Item.class, "rename"),
+                equalTo("Renames the item"));
+        assertThat(javadocReader.resolveMethodParameterComment(Item.class, "rename", "name"),
+                equalTo("New name"));
+        assertThat(javadocReader.resolveMethodTag(Item.class, "rename", "see"), equalTo("Other"));
+        assertThat(javadocReader.resolveFieldComment(Item.class, "unknown"), equalTo(""));
+    }
+
+    @Test
+    public void resolveMethodCommentFromClassHierarchy() {
+        JavadocReader javadocReader = reader(registrar -> {
+            registrar.methodComment(PREFIX + "Named", "rename", "Renames");
+            registrar.methodComment(PREFIX + "Named", "name", "Name");
+            registrar.inheritanceResolved(PREFIX + "ResolvedItem");
+        });
+
+        assertThat(javadocReader.resolveMethodComment(Item.class, "rename"), equalTo("Renames"));
+        // The registry states that ResolvedItem already contains the inherited comments.
+        assertThat(javadocReader.resolveMethodComment(ResolvedItem.class, "name"), equalTo(""));
+    }
+
+    @Test
+    public void readFilesForClassesNotInRegistry() throws IOException {
+        File dir = new File(temporaryFolder.getRoot(), "capital/scalable/restdocs/javadoc");
+        dir.mkdirs();
+        Files.write(new File(dir, "JavadocRegistriesTest.Item.json").toPath(),
+                "{\"fields\":{\"name\":{\"comment\":\"From file\"}}}"
+                        .getBytes(StandardCharsets.UTF_8));
+        JavadocReader javadocReader = reader(registrar ->
+                registrar.fieldComment(PREFIX + "Named", "name", "From registry"));
+
+        assertThat(javadocReader.resolveFieldComment(Item.class, "name"), equalTo("From file"));
+    }
+
+    @Test
+    public void registryJavadocIsCachedAndCounted() {
+        JavadocReaderImpl javadocReader = reader(registrar ->
+                registrar.fieldComment(PREFIX + "Item", "name", "Name of the item"));
+        JavadocUsage usage = new JavadocUsage();
+        javadocReader.setUsage(usage);
+
+        javadocReader.resolveFieldComment(Item.class, "name");
+        javadocReader.resolveFieldComment(Item.class, "name");
+
+        JavadocStatistics statistics = javadocReader.getStatistics();
+        assertThat(statistics.getCacheMisses(), is(1L));
+        assertThat(statistics.getCacheHits(), is(1L));
+        assertThat(statistics.getFilesFound(), is(1L));
+        assertThat(new TreeSet<>(usage.getMembers()),
+                equalTo(new TreeSet<>(Arrays.asList(PREFIX + "Item#name"))));
+    }
+
+    @Test
+    public void excludedPackagesAreNotLookedUp() {
+        JavadocReaderImpl javadocReader = JavadocReaderImpl.createWith(
+                temporaryFolder.getRoot().getPath(), "capital.scalable.");
+        javadocReader.setRegistries(JavadocRegistries.of(singletonList(registrar ->
+                registrar.fieldComment(PREFIX + "Item", "name", "Name of the item")),
+                new StringPool()));
+
+        assertThat(javadocReader.resolveFieldComment(Item.class, "name"), equalTo(""));
+    }
+
+    @Test
+    public void keysOfNestedClasses() {
+        assertThat(JavadocRegistries.toKey("com.example.Outer$Inner"),
+                equalTo("com/example/Outer.Inner.json"));
+        assertThat(JavadocRegistries.toKey("Simple"), equalTo("Simple.json"));
+    }
+
+    @Test
+    public void noRegistries() {
+        JavadocRegistries registries = JavadocRegistries.of(emptyList(), new StringPool());
+        assertThat(registries.find("capital/scalable/restdocs/javadoc/Item.json"),
+                is(nullValue()));
+    }
+
+    private JavadocReaderImpl reader(JavadocRegistry registry) {
+        JavadocReaderImpl javadocReader =
+                JavadocReaderImpl.createWith(temporaryFolder.getRoot().getPath());
+        javadocReader.setRegistries(
+                JavadocRegistries.of(singletonList(registry), new StringPool()));
+        return javadocReader;
+    }
+
+    private interface Named {
+        void rename(String name);
+
+        String name();
+    }
+
+    private static class Item implements Named {
+        private String name;
+
+        @Override
+        public void rename(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+    }
+
+    private static class ResolvedItem extends Item {
+    }
+}
@@ -170,4 +170,40 @@ public class JavadocUtilTest {
         assertThat(JavadocUtil.convertFromJavadoc(actual, TemplateFormatting.MARKDOWN),
                 is(expected));
     }
+
+    @Test
+    public void convertLinkWithStyledTextAsciidoc() {
+        String actual = "see <a href='https://github.com'  ><b>GitHub</b></a> <i>and</i> "
+                + "<a href=\"https://github.com/ScaCap\">ScaCap</a>";
+        String expected = "see link:https://github.com[**GitHub**] __and__ "
+                + "link:https://github.com/ScaCap[ScaCap]";
+        assertThat(JavadocUtil.convertFromJavadoc(actual, TemplateFormatting.ASCIIDOC),
+                is(expected));
+    }
+
+    @Test
+    public void convertUnknownTagsAndUnclosedLink() {
+        String actual = "<tt>x</tt> < y <a href=\"https://github.com\">GitHub";
+        assertThat(JavadocUtil.convertFromJavadoc(actual, TemplateFormatting.MARKDOWN),
+                is(actual));
+    }
+
+    @Test
+    public void convertOnlyLineBreaks() {
+        assertThat(JavadocUtil.convertFromJavadoc("<p>\n</p>", TemplateFormatting.ASCIIDOC),
+                is(""));
+        assertThat(JavadocUtil.convertFromJavadoc("<br>", TemplateFormatting.ASCIIDOC),
+                is(""));
+    }
+
+    @Test
+    public void convertSameCommentForDifferentFormatting() {
+        String actual = "<em>italics</em>";
+        assertThat(JavadocUtil.convertFromJavadoc(actual, TemplateFormatting.ASCIIDOC),
+                is("__italics__"));
+        assertThat(JavadocUtil.convertFromJavadoc(actual, TemplateFormatting.MARKDOWN),
+                is("*italics*"));
+        assertThat(JavadocUtil.convertFromJavadoc(actual, TemplateFormatting.ASCIIDOC),
+                is("__italics__"));
+    }
 }
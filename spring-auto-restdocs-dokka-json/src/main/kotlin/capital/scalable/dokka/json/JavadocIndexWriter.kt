@@ -0,0 +1,99 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Dokka JSON
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.dokka.json
+
+import java.io.ByteArrayOutputStream
+import java.io.DataOutputStream
+import java.io.File
+
+/**
+ * Writes the layout read by `capital.scalable.restdocs.javadoc.JavadocIndex` in Spring Auto REST Docs Core:
+ * a header, an open addressing hash table over the [String.hashCode] of the relative JSON file paths and
+ * the UTF-8 encoded keys and JSON documents.
+ */
+class JavadocIndexWriter {
+
+    // sorted to keep the file independent of the order in which the pages are built
+    private val entries = sortedMapOf<String, ByteArray>()
+
+    /**
+     * @param key relative path of the class' JSON file with "/" as separator
+     * @param json UTF-8 encoded JSON documentation of the class
+     */
+    @Synchronized
+    fun add(key: String, json: ByteArray) {
+        entries[key] = json
+    }
+
+    /**
+     * @return whether the index file was written, i.e. `false` if its content is unchanged
+     */
+    @Synchronized
+    fun write(destinationDir: File): Boolean {
+        val slotCount = slotCount(entries.size)
+        val slots = arrayOfNulls<IntArray>(slotCount)
+        var offset = HEADER_SIZE + slotCount * SLOT_SIZE
+        for ((key, value) in entries) {
+            val keyLength = key.toByteArray(Charsets.UTF_8).size
+            var slot = key.hashCode() and (slotCount - 1)
+            while (slots[slot] != null) {
+                slot = (slot + 1) and (slotCount - 1)
+            }
+            slots[slot] = intArrayOf(key.hashCode(), offset, keyLength, offset + keyLength, value.size)
+            offset += keyLength + value.size
+        }
+
+        val bytes = ByteArrayOutputStream()
+        DataOutputStream(bytes).use { out ->
+            out.writeInt(MAGIC)
+            out.writeInt(VERSION)
+            out.writeInt(slotCount)
+            for (slot in slots) {
+                for (i in 0 until 5) {
+                    out.writeInt(slot?.get(i) ?: 0)
+                }
+            }
+            for ((key, value) in entries) {
+                out.write(key.toByteArray(Charsets.UTF_8))
+                out.write(value)
+            }
+        }
+        return File(destinationDir, FILE_NAME).writeBytesIfChanged(bytes.toByteArray())
+    }
+
+    /**
+     * Power of two with a load factor of at most 0.5.
+     */
+    private fun slotCount(entries: Int): Int {
+        var slotCount = 2
+        while (slotCount < entries * 2) {
+            slotCount = slotCount shl 1
+        }
+        return slotCount
+    }
+
+    companion object {
+        const val FILE_NAME = "auto-restdocs-javadoc.idx"
+        private const val MAGIC = 0x53415244
+        private const val VERSION = 1
+        private const val HEADER_SIZE = 12
+        private const val SLOT_SIZE = 20
+    }
+}
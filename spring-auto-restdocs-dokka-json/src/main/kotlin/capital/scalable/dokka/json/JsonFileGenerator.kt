@@ -23,15 +23,26 @@ import com.google.inject.Inject
 import com.google.inject.name.Named
 import org.jetbrains.dokka.*
 import java.io.File
-import java.io.FileOutputStream
 import java.io.IOException
-import java.io.OutputStreamWriter
+import java.nio.file.AtomicMoveNotSupportedException
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption.ATOMIC_MOVE
+import java.nio.file.StandardCopyOption.REPLACE_EXISTING
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
 
-class JsonFileGenerator @Inject constructor(@Named("outputDir") override val root: File) : NodeLocationAwareGenerator {
+open class JsonFileGenerator @Inject constructor(@Named("outputDir") override val root: File) : NodeLocationAwareGenerator {
 
     @set:Inject(optional = true)
     lateinit var formatService: FormatService
 
+    @set:Inject(optional = true)
+    var logger: DokkaLogger = DokkaConsoleLogger
+
+    private val manifestEntries = sortedSetOf<String>()
+
     override fun location(node: DocumentationNode): Location {
         return FileLocation(fileForNode(node, formatService.linkExtension))
     }
@@ -40,27 +51,89 @@ class JsonFileGenerator @Inject constructor(@Named("outputDir") override val roo
         return File(root, relativePathToNode(node)).appendExtension(extension)
     }
 
+    /**
+     * Formats the pages of all classes and writes them on a worker pool. Formatting stays on the calling thread, as
+     * neither Dokka's documentation model nor the format service are known to be thread-safe. Files with unchanged
+     * content are not written again, so that their modification time is kept for caches and incremental builds.
+     *
+     * A failing page does not stop the other pages. The first failure is thrown once all pages are processed.
+     */
     override fun buildPages(nodes: Iterable<DocumentationNode>) {
+        val pages = mutableListOf<Pair<FileLocation, List<DocumentationNode>>>()
+        collectPages(nodes, pages)
 
-        for ((_, items) in nodes.groupBy { fileForNode(it, formatService.extension) }) {
-            if (items.any { it.kind == NodeKind.Class }) {
-                val location = locationOverride(items.find { it.kind == NodeKind.Class }!!)
-                val file = location.file
-                file.parentFile?.mkdirsOrFail()
+        val executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()) { runnable ->
+            Thread(runnable, "dokka-json-writer").apply { isDaemon = true }
+        }
+        var written = 0
+        val failures = mutableListOf<Throwable>()
+        try {
+            val futures = mutableListOf<Pair<File, Future<Boolean>>>()
+            for ((location, items) in pages) {
                 try {
-                    FileOutputStream(file).use {
-                        OutputStreamWriter(it, Charsets.UTF_8).use { writer ->
-                            writer.write(formatService.format(location, items))
-                        }
+                    val content = formatService.format(location, items)
+                    futures.add(Pair(location.file, executor.submit(Callable { writePage(location.file, content) })))
+                } catch (e: Exception) {
+                    logger.error("Failed to format ${location.file}: $e")
+                    failures.add(e)
+                }
+            }
+            for ((file, future) in futures) {
+                try {
+                    if (future.get()) {
+                        written++
                     }
-                } catch (e: Throwable) {
-                    println(e)
+                } catch (e: ExecutionException) {
+                    logger.error("Failed to write $file: ${e.cause}")
+                    failures.add(e.cause ?: e)
                 }
             }
-            buildPages(items.flatMap { it.members })
+        } finally {
+            executor.shutdownNow()
+        }
+        logger.info("JSON pages: ${pages.size} formatted, $written files written, ${failures.size} failed")
+        if (failures.isNotEmpty()) {
+            throw failures.first()
+        }
+    }
+
+    private fun collectPages(nodes: Iterable<DocumentationNode>, pages: MutableList<Pair<FileLocation, List<DocumentationNode>>>) {
+        for ((_, items) in nodes.groupBy { fileForNode(it, formatService.extension) }) {
+            if (items.any { it.kind == NodeKind.Class }) {
+                pages.add(Pair(locationOverride(items.find { it.kind == NodeKind.Class }!!), items))
+            }
+            collectPages(items.flatMap { it.members }, pages)
         }
     }
 
+    /**
+     * Called concurrently for different pages.
+     *
+     * @return whether a file was written, i.e. `false` if the file of the page is unchanged
+     */
+    protected open fun writePage(file: File, content: String): Boolean {
+        addToManifest(file.relativeTo(root).invariantSeparatorsPath)
+        return file.writeBytesIfChanged(content.toByteArray(Charsets.UTF_8))
+    }
+
+    /**
+     * @param entry relative path of a JSON file or of the index file with "/" as separator
+     */
+    @Synchronized
+    protected fun addToManifest(entry: String) {
+        manifestEntries.add(entry)
+    }
+
+    /**
+     * Lists the written files in `META-INF/auto-restdocs/javadoc-index`, which Spring Auto REST Docs Core reads
+     * once when the generated files are packaged into a jar.
+     */
+    @Synchronized
+    private fun writeManifest() {
+        File(root, MANIFEST_FILE_NAME).writeBytesIfChanged(
+            manifestEntries.joinToString(separator = "\n", postfix = "\n").toByteArray(Charsets.UTF_8))
+    }
+
     private fun locationOverride(node: DocumentationNode): FileLocation {
         val path = node.path
             // Remove class name. It is appended again below.
@@ -81,13 +154,41 @@ class JsonFileGenerator @Inject constructor(@Named("outputDir") override val roo
 
     override fun buildOutlines(nodes: Iterable<DocumentationNode>) {}
 
-    override fun buildSupportFiles() {}
+    override fun buildSupportFiles() {
+        writeManifest()
+    }
 
     override fun buildPackageList(nodes: Iterable<DocumentationNode>) {}
 
-    private fun File.mkdirsOrFail() {
-        if (!mkdirs() && !exists()) {
-            throw IOException("Failed to create directory $this")
+    companion object {
+        const val MANIFEST_FILE_NAME = "META-INF/auto-restdocs/javadoc-index"
+    }
+}
+
+/**
+ * Writes the file only if its content changed. The content is written to a temporary file that then replaces the
+ * file, so that readers never see a partly written file, e.g. a test JVM that has the index file memory-mapped.
+ *
+ * @return whether the file was written
+ */
+internal fun File.writeBytesIfChanged(content: ByteArray): Boolean {
+    if (isFile && length() == content.size.toLong() && readBytes().contentEquals(content)) {
+        return false
+    }
+    val parent = absoluteFile.parentFile
+    if (!parent.mkdirs() && !parent.exists()) {
+        throw IOException("Failed to create directory $parent")
+    }
+    val tempFile = File.createTempFile(name, ".tmp", parent)
+    try {
+        tempFile.writeBytes(content)
+        try {
+            Files.move(tempFile.toPath(), toPath(), ATOMIC_MOVE, REPLACE_EXISTING)
+        } catch (e: AtomicMoveNotSupportedException) {
+            Files.move(tempFile.toPath(), toPath(), REPLACE_EXISTING)
         }
+    } finally {
+        tempFile.delete()
     }
+    return true
 }
@@ -0,0 +1,50 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Dokka JSON
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.dokka.json
+
+import com.google.inject.Inject
+import com.google.inject.name.Named
+import java.io.File
+
+/**
+ * Writes the documentation of all classes into a single index file instead of one JSON file per class.
+ */
+class JsonIndexFileGenerator @Inject constructor(@Named("outputDir") root: File) : JsonFileGenerator(root) {
+
+    private val indexWriter = JavadocIndexWriter()
+
+    override fun buildSupportFiles() {
+        val written = indexWriter.write(root)
+        logger.info("Javadoc index ${if (written) "written" else "unchanged"}")
+        addToManifest(JavadocIndexWriter.FILE_NAME)
+        super.buildSupportFiles()
+    }
+
+    /**
+     * Only adds the page to the index, which is written by [buildSupportFiles].
+     *
+     * @return `false`, as no file is written for the page
+     */
+    override fun writePage(file: File, content: String): Boolean {
+        val key = file.relativeTo(root).invariantSeparatorsPath
+        indexWriter.add(key, content.toByteArray(Charsets.UTF_8))
+        return false
+    }
+}
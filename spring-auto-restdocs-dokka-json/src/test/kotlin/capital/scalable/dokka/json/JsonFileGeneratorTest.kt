@@ -20,9 +20,16 @@
 package capital.scalable.dokka.json
 
 import com.intellij.openapi.util.io.FileUtil
+import org.jetbrains.dokka.Content
 import org.jetbrains.dokka.DocumentationModule
+import org.jetbrains.dokka.DocumentationNode
 import org.jetbrains.dokka.DokkaConsoleLogger
+import org.jetbrains.dokka.FormatService
+import org.jetbrains.dokka.FormattedOutputBuilder
+import org.jetbrains.dokka.Location
+import org.jetbrains.dokka.NodeKind
 import org.jetbrains.dokka.Platform
+import org.jetbrains.dokka.RefKind
 import org.jetbrains.dokka.contentRootFromPath
 import org.jetbrains.dokka.tests.ModelConfig
 import org.jetbrains.dokka.tests.verifyJavaModel
@@ -30,6 +37,10 @@ import org.jetbrains.dokka.tests.verifyModel
 import org.jetbrains.kotlin.cli.common.config.KotlinSourceRoot
 import org.junit.Test
 import java.io.File
+import java.io.IOException
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertFalse
 import kotlin.test.assertTrue
 
 class JsonFileGeneratorTest {
@@ -52,6 +63,115 @@ class JsonFileGeneratorTest {
         verifyJavaOutput(inputFile, verifier(expectedFiles))
     }
 
+    @Test
+    fun `buildPages should generate a single index file for Kotlin classes and nested classes`() {
+        val indexRoot = FileUtil.createTempDirectory("dokka-json", "index-generator-test")
+        val fileGenerator = JsonIndexFileGenerator(indexRoot)
+        fileGenerator.formatService = JsonFormatService(DokkaConsoleLogger)
+        verifyOutput("KotlinDataClass.kt") {
+            fileGenerator.buildPages(listOf(it))
+            fileGenerator.buildSupportFiles()
+            val index = indexRoot.resolve(JavadocIndexWriter.FILE_NAME)
+            assertTrue("Expected index file was not generated") { index.exists() }
+            val content = index.readText(Charsets.UTF_8)
+            assertTrue { content.contains("testdata/KotlinDataClass.json") }
+            assertTrue { content.contains("testdata/KotlinDataClass.NestedClass.json") }
+            assertFalse { indexRoot.resolve("testdata/KotlinDataClass.json").exists() }
+            val manifest = indexRoot.resolve(JsonFileGenerator.MANIFEST_FILE_NAME)
+            assertEquals(listOf(JavadocIndexWriter.FILE_NAME), manifest.readLines(Charsets.UTF_8))
+        }
+    }
+
+    @Test
+    fun `buildPages should not write unchanged files again`() {
+        val fileGenerator = initFileGenerator()
+        verifyOutput("KotlinDataClass.kt") {
+            fileGenerator.buildPages(listOf(it))
+            val file = root.resolve("testdata/KotlinDataClass.json")
+            val lastModified = System.currentTimeMillis() - 60_000
+            assertTrue { file.setLastModified(lastModified) }
+
+            fileGenerator.buildPages(listOf(it))
+
+            assertEquals(lastModified, file.lastModified())
+        }
+    }
+
+    @Test
+    fun `buildPages should report whether the file of a page was written`() {
+        val results = mutableMapOf<String, Boolean>()
+        val fileGenerator = object : JsonFileGenerator(root) {
+            override fun writePage(file: File, content: String): Boolean {
+                val written = super.writePage(file, content)
+                synchronized(results) { results[file.name] = written }
+                return written
+            }
+        }
+        fileGenerator.formatService = NameFormatService()
+        val nodes = classNodes("Item", "Order")
+
+        fileGenerator.buildPages(nodes)
+        assertEquals(mapOf("Item.json" to true, "Order.json" to true), results)
+        assertEquals("Item", root.resolve("com/example/Item.json").readText(Charsets.UTF_8))
+
+        fileGenerator.buildPages(nodes)
+        assertEquals(mapOf("Item.json" to false, "Order.json" to false), results)
+    }
+
+    @Test
+    fun `buildPages should throw the first failure after all pages are processed`() {
+        val fileGenerator = object : JsonFileGenerator(root) {
+            override fun writePage(file: File, content: String): Boolean {
+                if (file.name == "Broken.json") {
+                    throw IOException("Disk full")
+                }
+                return super.writePage(file, content)
+            }
+        }
+        fileGenerator.formatService = NameFormatService()
+
+        val failure = assertFailsWith<IOException> { fileGenerator.buildPages(classNodes("Broken", "Item", "Order")) }
+
+        assertEquals("Disk full", failure.message)
+        assertTrue { root.resolve("com/example/Item.json").exists() }
+        assertTrue { root.resolve("com/example/Order.json").exists() }
+    }
+
+    @Test
+    fun `write should report whether the index file was written`() {
+        val indexWriter = JavadocIndexWriter()
+        indexWriter.add("com/example/Item.json", "{}".toByteArray(Charsets.UTF_8))
+
+        assertTrue { indexWriter.write(root) }
+        assertFalse { indexWriter.write(root) }
+    }
+
+    /**
+     * Package `com.example` with the given classes, built without analysing any sources.
+     */
+    private fun classNodes(vararg classNames: String): List<DocumentationNode> {
+        val packageNode = DocumentationNode("com.example", Content.Empty, NodeKind.Package)
+        for (className in classNames) {
+            val classNode = DocumentationNode(className, Content.Empty, NodeKind.Class)
+            classNode.addReferenceTo(packageNode, RefKind.Owner)
+            packageNode.addReferenceTo(classNode, RefKind.Member)
+        }
+        return listOf(packageNode)
+    }
+
+    /**
+     * Writes the names of the nodes of a page.
+     */
+    private class NameFormatService : FormatService {
+        override val extension = "json"
+
+        override fun createOutputBuilder(to: StringBuilder, location: Location) = object : FormattedOutputBuilder {
+            override fun appendNodes(nodes: Iterable<DocumentationNode>) {
+                nodes.forEach { to.append(it.name) }
+            }
+        }
+    }
+
     private fun verifyOutput(inputFile: String, verifier: (DocumentationModule) -> Unit) {
         verifyModel(
             ModelConfig(
@@ -76,10 +196,13 @@ class JsonFileGeneratorTest {
         val rootPath = File(root.path)
         return {
             fileGenerator.buildPages(listOf(it))
+            fileGenerator.buildSupportFiles()
             expectedFiles.forEach { fileName ->
                 val file = rootPath.resolve("$fileName.json")
                 assertTrue("Expected file $fileName.json was not generated") { file.exists() }
             }
+            val manifest = rootPath.resolve(JsonFileGenerator.MANIFEST_FILE_NAME).readLines(Charsets.UTF_8)
+            assertTrue { manifest.containsAll(expectedFiles.map { "$it.json" }) }
         }
     }
 
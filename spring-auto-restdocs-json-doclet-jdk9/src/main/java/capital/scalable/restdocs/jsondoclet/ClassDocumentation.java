@@ -22,19 +22,28 @@ package capital.scalable.restdocs.jsondoclet;
 import static java.util.Optional.ofNullable;
 import static capital.scalable.restdocs.jsondoclet.DocletUtils.cleanupDocComment;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.sun.source.doctree.DocCommentTree;
 import com.sun.source.doctree.ParamTree;
+import com.sun.source.doctree.UnknownBlockTagTree;
+import com.sun.source.util.DocTrees;
 
 import javax.lang.model.element.Element;
+import javax.lang.model.util.Elements;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import jdk.javadoc.doclet.DocletEnvironment;
 
 public final class ClassDocumentation {
+    private static final String CONSTRUCTOR = "<init>";
+
     private String comment = "";
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean inheritanceResolved;
     private final Map<String, FieldDocumentation> fields = new HashMap<>();
     private final Map<String, MethodDocumentation> methods = new HashMap<>();
 
@@ -44,11 +53,16 @@ public final class ClassDocumentation {
 
     public static ClassDocumentation fromClassDoc(DocletEnvironment docEnv,
             Element element) {
+        return fromClassDoc(docEnv.getElementUtils(), docEnv.getDocTrees(), element);
+    }
+
+    public static ClassDocumentation fromClassDoc(Elements elements, DocTrees docTrees,
+            Element element) {
         ClassDocumentation cd = new ClassDocumentation();
-        cd.setComment(cleanupDocComment(docEnv.getElementUtils().getDocComment(element)));
+        cd.setComment(cleanupDocComment(elements.getDocComment(element)));
 
         if ("RECORD".equals(element.getKind().name())) {
-            ofNullable(docEnv.getDocTrees().getDocCommentTree(element))
+            ofNullable(docTrees.getDocCommentTree(element))
                 .stream()
                 .map(DocCommentTree::getBlockTags)
                 .flatMap(List::stream)
@@ -70,17 +84,27 @@ public final class ClassDocumentation {
             element.getEnclosedElements().forEach(fieldOrMethod -> {
                 switch (fieldOrMethod.getKind()) {
                     case FIELD:
-                        cd.addField(docEnv, fieldOrMethod);
+                        cd.addField(elements, docTrees, fieldOrMethod);
                         break;
                     case METHOD:
                     case CONSTRUCTOR:
-                        cd.addMethod(docEnv, fieldOrMethod);
+                        cd.addMethod(elements, docTrees, fieldOrMethod);
                         break;
                     default:
                         // Ignored
                         break;
                 }
             });
+
+            // KDoc of Kotlin classes compiled with kapt documents properties in the class comment
+            ofNullable(docTrees.getDocCommentTree(element))
+                .stream()
+                .map(DocCommentTree::getBlockTags)
+                .flatMap(List::stream)
+                .filter(UnknownBlockTagTree.class::isInstance)
+                .map(UnknownBlockTagTree.class::cast)
+                .filter(t -> "property".equals(t.getTagName()))
+                .forEach(cd::addPropertyTag);
         }
 
         return cd;
@@ -90,14 +114,98 @@ public final class ClassDocumentation {
         this.comment = comment;
     }
 
-    private void addField(DocletEnvironment docEnv, Element element) {
+    private void addPropertyTag(UnknownBlockTagTree tag) {
+        String content = tag.getContent()
+                .stream()
+                .map(Object::toString)
+                .collect(Collectors.joining())
+                .trim();
+        String[] nameAndDescription = content.split("\\s+", 2);
+        FieldDocumentation field = fields.get(nameAndDescription[0]);
+        if (nameAndDescription.length == 2 && (field == null || field.getComment().isEmpty())) {
+            fields.put(nameAndDescription[0], FieldDocumentation.fromString(nameAndDescription[1]));
+        }
+    }
+
+    private void addField(Elements elements, DocTrees docTrees, Element element) {
         this.fields.put(element.getSimpleName().toString(),
-                FieldDocumentation.fromFieldDoc(docEnv, element));
+                FieldDocumentation.fromFieldDoc(elements, docTrees, element));
     }
 
-    private void addMethod(DocletEnvironment docEnv, Element element) {
+    private void addMethod(Elements elements, DocTrees docTrees, Element element) {
         this.methods.put(element.getSimpleName().toString(),
-                MethodDocumentation.fromMethodDoc(docEnv, element));
+                MethodDocumentation.fromMethodDoc(elements, docTrees, element));
+    }
+
+    String getComment() {
+        return comment;
+    }
+
+    boolean isInheritanceResolved() {
+        return inheritanceResolved;
     }
 
+    Map<String, FieldDocumentation> getFields() {
+        return fields;
+    }
+
+    Map<String, MethodDocumentation> getMethods() {
+        return methods;
+    }
+
+    /**
+     * Adds the documentation of the methods of a super class or interface. Super types have to
+     * be added in the order Spring Auto REST Docs looks them up at runtime: the super class with
+     * its own super types first, then the interfaces.
+     */
+    void inheritFrom(ClassDocumentation superType) {
+        superType.methods.forEach((name, method) -> {
+            if (CONSTRUCTOR.equals(name)) {
+                return;
+            }
+            MethodDocumentation own = methods.get(name);
+            if (own == null) {
+                methods.put(name, method.copy());
+            } else {
+                own.inheritFrom(method);
+            }
+        });
+    }
+
+    /**
+     * Used for testing.
+     */
+    static ClassDocumentation withComment(String comment) {
+        ClassDocumentation cd = new ClassDocumentation();
+        cd.comment = comment;
+        return cd;
+    }
+
+    /**
+     * @return a copy with only the given fields and methods
+     */
+    ClassDocumentation withMembers(Set<String> names) {
+        ClassDocumentation cd = new ClassDocumentation();
+        cd.comment = comment;
+        cd.inheritanceResolved = inheritanceResolved;
+        fields.forEach((name, field) -> {
+            if (names.contains(name)) {
+                cd.fields.put(name, field);
+            }
+        });
+        methods.forEach((name, method) -> {
+            if (names.contains(name)) {
+                cd.methods.put(name, method);
+            }
+        });
+        return cd;
+    }
+
+    /**
+     * Marks that the documentation of all super types was added with {@link #inheritFrom}.
+     */
+    void setInheritanceResolved() {
+        methods.values().forEach(MethodDocumentation::removeInheritDoc);
+        inheritanceResolved = true;
+    }
 }
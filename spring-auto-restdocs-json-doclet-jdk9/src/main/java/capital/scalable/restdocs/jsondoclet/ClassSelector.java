@@ -0,0 +1,252 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Json Doclet for JDK9+
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.jsondoclet;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.Elements;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Selects the classes the doclet extracts documentation for.
+ * <p>
+ * By default, all classes are selected. With {@link #setReachableOnly(boolean)}, only controllers
+ * and the classes reachable from the signatures of their methods are selected. The methods of the
+ * super types of controllers, e.g. of an abstract base controller or an API interface, are handler
+ * methods as well. The fields of controllers, e.g. injected services, are not followed. A class is
+ * reachable through the types of its fields, the return types of its getters, its super types and
+ * the classes referenced in its annotations, e.g. the subtypes in {@code @JsonSubTypes}. With
+ * included packages, the classes of these packages are selected as well. Classes of excluded
+ * packages are never selected.
+ * <p>
+ * If a {@link UsageManifest} is set, only the classes listed in it are selected.
+ */
+class ClassSelector {
+    private static final Set<String> CONTROLLER_ANNOTATIONS = Set.of(
+            "org.springframework.web.bind.annotation.RestController",
+            "org.springframework.stereotype.Controller");
+
+    private final Elements elements;
+    private boolean reachableOnly;
+    private List<String> includedPackages = List.of();
+    private List<String> excludedPackages = List.of();
+    private UsageManifest usage;
+
+    ClassSelector(Elements elements) {
+        this.elements = elements;
+    }
+
+    void setReachableOnly(boolean reachableOnly) {
+        this.reachableOnly = reachableOnly;
+    }
+
+    /**
+     * @param packages comma separated package names, sub packages are included
+     */
+    void setIncludedPackages(String packages) {
+        this.includedPackages = splitPackages(packages);
+    }
+
+    /**
+     * @param packages comma separated package names, sub packages are excluded
+     */
+    void setExcludedPackages(String packages) {
+        this.excludedPackages = splitPackages(packages);
+    }
+
+    /**
+     * @param usage manifest of the used classes or {@code null} to not restrict the classes
+     */
+    void setUsage(UsageManifest usage) {
+        this.usage = usage;
+    }
+
+    /**
+     * @return the selected classes in the order of the given classes
+     */
+    List<TypeElement> select(List<TypeElement> classes) {
+        boolean selectAll = !reachableOnly && includedPackages.isEmpty();
+        Set<TypeElement> reachable = reachableOnly ? reachableClasses(classes) : Set.of();
+        return classes.stream()
+                .filter(c -> selectAll || reachable.contains(c) || isInPackages(c, includedPackages))
+                .filter(c -> !isInPackages(c, excludedPackages))
+                .filter(c -> usage == null || usage.containsClass(elements.getBinaryName(c).toString()))
+                .collect(Collectors.toList());
+    }
+
+    private Set<TypeElement> reachableClasses(List<TypeElement> classes) {
+        Set<TypeElement> included = new HashSet<>(classes);
+        // Controllers and their super types, which need not be part of the documented classes
+        Set<TypeElement> handlerTypes = new HashSet<>();
+        for (TypeElement c : classes) {
+            if (isController(c, new HashSet<>())) {
+                addWithSuperTypes(c, handlerTypes);
+            }
+        }
+        Set<TypeElement> visited = new HashSet<>(handlerTypes);
+        Deque<TypeElement> queue = new ArrayDeque<>(handlerTypes);
+        while (!queue.isEmpty()) {
+            TypeElement current = queue.poll();
+            boolean controller = handlerTypes.contains(current);
+            List<TypeMirror> referenced = new ArrayList<>();
+            referenced.add(current.getSuperclass());
+            referenced.addAll(current.getInterfaces());
+            addAnnotationTypes(current.getAnnotationMirrors(), referenced);
+            for (Element member : current.getEnclosedElements()) {
+                if (member.getModifiers().contains(Modifier.STATIC)) {
+                    continue;
+                }
+                if (member.getKind() == ElementKind.FIELD && !controller) {
+                    referenced.add(member.asType());
+                    addAnnotationTypes(member.getAnnotationMirrors(), referenced);
+                } else if (member.getKind() == ElementKind.METHOD) {
+                    ExecutableElement method = (ExecutableElement) member;
+                    if (controller) {
+                        referenced.add(method.getReturnType());
+                        addAnnotationTypes(method.getAnnotationMirrors(), referenced);
+                        method.getParameters().forEach(p -> {
+                            referenced.add(p.asType());
+                            addAnnotationTypes(p.getAnnotationMirrors(), referenced);
+                        });
+                    } else if (isGetter(method)) {
+                        referenced.add(method.getReturnType());
+                        addAnnotationTypes(method.getAnnotationMirrors(), referenced);
+                    }
+                }
+            }
+            Set<TypeElement> found = new HashSet<>();
+            referenced.forEach(type -> collectClasses(type, found));
+            for (TypeElement c : found) {
+                if (included.contains(c) && visited.add(c)) {
+                    queue.add(c);
+                }
+            }
+        }
+        visited.retainAll(included);
+        return visited;
+    }
+
+    private static void addWithSuperTypes(TypeElement type, Set<TypeElement> types) {
+        if (!types.add(type)) {
+            return;
+        }
+        List<TypeMirror> superTypes = new ArrayList<>(type.getInterfaces());
+        superTypes.add(type.getSuperclass());
+        for (TypeMirror superType : superTypes) {
+            if (superType.getKind() == TypeKind.DECLARED) {
+                addWithSuperTypes((TypeElement) ((DeclaredType) superType).asElement(), types);
+            }
+        }
+    }
+
+    private static boolean isController(TypeElement type, Set<Element> visited) {
+        for (AnnotationMirror annotation : type.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            if (CONTROLLER_ANNOTATIONS.contains(annotationType.getQualifiedName().toString())
+                    || visited.add(annotationType) && isController(annotationType, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isGetter(ExecutableElement method) {
+        String name = method.getSimpleName().toString();
+        return method.getParameters().isEmpty()
+                && method.getReturnType().getKind() != TypeKind.VOID
+                && (name.startsWith("get") || name.startsWith("is"));
+    }
+
+    private static void addAnnotationTypes(Collection<? extends AnnotationMirror> annotations,
+            List<TypeMirror> types) {
+        for (AnnotationMirror annotation : annotations) {
+            annotation.getElementValues().values().forEach(value -> addAnnotationTypes(value, types));
+        }
+    }
+
+    private static void addAnnotationTypes(AnnotationValue value, List<TypeMirror> types) {
+        Object v = value.getValue();
+        if (v instanceof TypeMirror) {
+            types.add((TypeMirror) v);
+        } else if (v instanceof AnnotationMirror) {
+            addAnnotationTypes(List.of((AnnotationMirror) v), types);
+        } else if (v instanceof List) {
+            for (Object element : (List<?>) v) {
+                addAnnotationTypes((AnnotationValue) element, types);
+            }
+        }
+    }
+
+    /**
+     * Type variables are not followed, the actual type arguments are reachable where the
+     * generic class is used.
+     */
+    private static void collectClasses(TypeMirror type, Set<TypeElement> classes) {
+        if (type == null) {
+            return;
+        }
+        switch (type.getKind()) {
+            case DECLARED:
+                DeclaredType declaredType = (DeclaredType) type;
+                classes.add((TypeElement) declaredType.asElement());
+                declaredType.getTypeArguments().forEach(t -> collectClasses(t, classes));
+                break;
+            case ARRAY:
+                collectClasses(((ArrayType) type).getComponentType(), classes);
+                break;
+            case WILDCARD:
+                collectClasses(((WildcardType) type).getExtendsBound(), classes);
+                collectClasses(((WildcardType) type).getSuperBound(), classes);
+                break;
+            default:
+                // primitives, type variables and unresolved types
+        }
+    }
+
+    private boolean isInPackages(TypeElement type, List<String> packages) {
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        return packages.stream().anyMatch(p -> packageName.equals(p) || packageName.startsWith(p + "."));
+    }
+
+    private static List<String> splitPackages(String packages) {
+        return Arrays.stream(packages.split(","))
+                .map(String::trim)
+                .filter(p -> !p.isEmpty())
+                .collect(Collectors.toList());
+    }
+}
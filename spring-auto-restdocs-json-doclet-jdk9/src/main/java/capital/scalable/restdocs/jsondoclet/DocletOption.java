@@ -0,0 +1,84 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Json Doclet for JDK9+
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.jsondoclet;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import jdk.javadoc.doclet.Doclet;
+
+/**
+ * An option specific to this doclet, either a flag or an option with a single argument.
+ */
+class DocletOption implements Doclet.Option {
+
+    private final String name;
+    private final String parameters;
+    private final String description;
+    private final Consumer<List<String>> processor;
+
+    /**
+     * @param parameters name of the argument or {@code null} for a flag
+     */
+    DocletOption(String name, String parameters, String description,
+            Consumer<List<String>> processor) {
+        this.name = name;
+        this.parameters = parameters;
+        this.description = description;
+        this.processor = processor;
+    }
+
+    @Override
+    public int getArgumentCount() {
+        return parameters != null ? 1 : 0;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public Kind getKind() {
+        return Kind.OTHER;
+    }
+
+    @Override
+    public List<String> getNames() {
+        return Collections.singletonList(name);
+    }
+
+    @Override
+    public String getParameters() {
+        return parameters != null ? parameters : "";
+    }
+
+    @Override
+    public boolean process(String option, List<String> arguments) {
+        processor.accept(arguments);
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,97 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Json Doclet for JDK9+
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.jsondoclet;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jdk.javadoc.doclet.DocletEnvironment;
+
+/**
+ * Adds the method documentation of the super classes and interfaces to the documentation of a
+ * class, so that Spring Auto REST Docs does not need to look up the super types at runtime.
+ * <p>
+ * The inheritance is only resolved if all super types, except the ones of the JDK, are part
+ * of the Javadoc run. Otherwise, the class is documented as is and the super types are looked
+ * up at runtime as before.
+ */
+class DocumentationInheritance {
+    private final DocletEnvironment docEnv;
+    private final Map<TypeElement, ClassDocumentation> documentation = new HashMap<>();
+
+    DocumentationInheritance(DocletEnvironment docEnv) {
+        this.docEnv = docEnv;
+    }
+
+    ClassDocumentation resolve(TypeElement type) {
+        ClassDocumentation cd = documentation.get(type);
+        if (cd == null) {
+            cd = ClassDocumentation.fromClassDoc(docEnv, type);
+            List<ClassDocumentation> superTypes = superTypes(type);
+            if (superTypes != null) {
+                superTypes.forEach(cd::inheritFrom);
+                cd.setInheritanceResolved();
+            }
+            documentation.put(type, cd);
+        }
+        return cd;
+    }
+
+    /**
+     * @return the resolved documentation of the super types in the order in which they are
+     * looked up at runtime or null if one of them can not be resolved
+     */
+    private List<ClassDocumentation> superTypes(TypeElement type) {
+        List<TypeMirror> superTypes = new ArrayList<>();
+        superTypes.add(type.getSuperclass());
+        superTypes.addAll(type.getInterfaces());
+
+        List<ClassDocumentation> result = new ArrayList<>();
+        for (TypeMirror superType : superTypes) {
+            if (superType.getKind() != TypeKind.DECLARED) {
+                continue;
+            }
+            TypeElement superElement = (TypeElement) ((DeclaredType) superType).asElement();
+            if (isJdkClass(superElement)) {
+                continue;
+            }
+            if (!docEnv.isIncluded(superElement)) {
+                return null;
+            }
+            ClassDocumentation superDoc = resolve(superElement);
+            if (!superDoc.isInheritanceResolved()) {
+                return null;
+            }
+            result.add(superDoc);
+        }
+        return result;
+    }
+
+    private static boolean isJdkClass(TypeElement type) {
+        String name = type.getQualifiedName().toString();
+        return name.startsWith("java.") || name.startsWith("javax.");
+    }
+}
@@ -19,13 +19,13 @@
  */
 package capital.scalable.restdocs.jsondoclet;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
+import static capital.scalable.restdocs.jsondoclet.DocletUtils.writeIfChanged;
 
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
-import java.io.BufferedWriter;
+import javax.tools.Diagnostic;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
@@ -33,13 +33,17 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jdk.javadoc.doclet.Doclet;
 import jdk.javadoc.doclet.DocletEnvironment;
+import jdk.javadoc.doclet.Reporter;
 import jdk.javadoc.doclet.StandardDoclet;
 
 /**
@@ -47,30 +51,166 @@ import jdk.javadoc.doclet.StandardDoclet;
  * <p>
  * Implementation note: this doclet extends the default doclet, mainly to be able to ignore the default parameters.
  * See the {@link ExtractDocumentationAsJsonDoclet#getSupportedOptions()} method.
+ * <p>
+ * Supported options in addition to {@code -d}:
+ * <ul>
+ * <li>{@code --javadoc-index}: write a single index file instead of one JSON file per class</li>
+ * <li>{@code --parallel <threads>}: serialize and write the files concurrently with the given number of
+ * threads while the documentation of the next classes is extracted</li>
+ * <li>{@code --reachable-only}: only document controllers and the classes reachable from their methods</li>
+ * <li>{@code --include-packages <packages>}: document the classes of the comma separated packages,
+ * in addition to the reachable classes if {@code --reachable-only} is given</li>
+ * <li>{@code --exclude-packages <packages>}: do not document the classes of the comma separated packages</li>
+ * <li>{@code --inherit-comments}: add the method comments of the super classes and interfaces to the
+ * classes, so that the class hierarchy does not need to be looked up at runtime</li>
+ * <li>{@code --compact}: write single letter keys and leave out empty values</li>
+ * <li>{@code --usage-manifest <file>}: only document the classes and members listed in the usage manifest
+ * written by Spring Auto REST Docs, all classes are documented if the file does not exist</li>
+ * </ul>
+ * The written files are listed in {@code META-INF/auto-restdocs/javadoc-index}. Files with unchanged
+ * content are not written again and files of classes that are no longer documented are removed.
  */
 public class ExtractDocumentationAsJsonDoclet extends StandardDoclet {
 
     private String directoryLocationPath;
 
+    private boolean javadocIndex;
+
+    private int parallelThreads = 1;
+
+    private boolean reachableOnly;
+
+    private String includedPackages = "";
+
+    private String excludedPackages = "";
+
+    private boolean inheritComments;
+
+    private boolean compact;
+
+    private String usageManifest;
+
+    private Reporter reporter;
+
+    @Override
+    public void init(Locale locale, Reporter reporter) {
+        super.init(locale, reporter);
+        this.reporter = reporter;
+    }
+
     @Override
     public boolean run(DocletEnvironment docEnv) {
         Path destinationDir = getDestinationDir();
-        ObjectMapper mapper = createObjectMapper();
-
-        docEnv.getIncludedElements()
-                .stream()
-                .filter(e -> e.getKind().isClass() || e.getKind().isInterface())
-                .forEach(classOrInterface -> writeToFile(
-                        destinationDir,
-                        mapper,
-                        findPackageElement(classOrInterface),
-                        (TypeElement) classOrInterface,
-                        ClassDocumentation.fromClassDoc(docEnv, classOrInterface)
-                ));
+        ObjectMapper mapper = createObjectMapper(compact);
+        JavadocIndexWriter indexWriter = javadocIndex ? new JavadocIndexWriter() : null;
+        JavadocManifestWriter manifestWriter = new JavadocManifestWriter();
+        List<String> previousManifestEntries = readManifest(destinationDir);
+        DocumentationInheritance inheritance =
+                inheritComments ? new DocumentationInheritance(docEnv) : null;
+        UsageManifest usage = readUsageManifest();
+
+        try (OutputPipeline pipeline = new OutputPipeline(parallelThreads)) {
+            List<TypeElement> classes = docEnv.getIncludedElements()
+                    .stream()
+                    .filter(e -> e.getKind().isClass() || e.getKind().isInterface())
+                    .map(TypeElement.class::cast)
+                    .collect(Collectors.toList());
+            for (TypeElement typeElement : classes) {
+                manifestWriter.addPackage(findPackageElement(typeElement).getQualifiedName()
+                        .toString().replace('.', '/'));
+            }
+            for (TypeElement typeElement : selector(docEnv, usage).select(classes)) {
+                // The Javadoc API is not thread-safe, only serialization and file I/O run concurrently.
+                PackageElement packageElement = findPackageElement(typeElement);
+                ClassDocumentation cd = documentation(docEnv, inheritance, usage, typeElement);
+                String key = indexKey(packageElement, typeElement);
+                if (indexWriter != null) {
+                    pipeline.submit(key, () -> serialize(mapper, cd));
+                } else {
+                    Path path = path(destinationDir, packageElement, typeElement);
+                    pipeline.submit(key, () -> {
+                        writeToFile(path, mapper, cd);
+                        return null;
+                    });
+                }
+            }
+            pipeline.forEachOutput((key, json) -> {
+                if (indexWriter != null) {
+                    indexWriter.add(key, json);
+                } else {
+                    manifestWriter.add(key);
+                }
+            });
+        }
+
+        if (indexWriter != null) {
+            try {
+                indexWriter.write(destinationDir);
+            } catch (IOException e) {
+                e.printStackTrace();
+                throw new DocletAbortException("Error writing index file: " + e);
+            }
+            manifestWriter.add(JavadocIndexWriter.FILE_NAME);
+        }
+
+        try {
+            manifestWriter.removeStaleFiles(destinationDir, previousManifestEntries);
+            manifestWriter.write(destinationDir);
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new DocletAbortException("Error writing manifest file: " + e);
+        }
 
         return true;
     }
 
+    private ClassSelector selector(DocletEnvironment docEnv, UsageManifest usage) {
+        ClassSelector selector = new ClassSelector(docEnv.getElementUtils());
+        selector.setReachableOnly(reachableOnly);
+        selector.setIncludedPackages(includedPackages);
+        selector.setExcludedPackages(excludedPackages);
+        selector.setUsage(usage);
+        return selector;
+    }
+
+    private static ClassDocumentation documentation(DocletEnvironment docEnv,
+            DocumentationInheritance inheritance, UsageManifest usage, TypeElement typeElement) {
+        ClassDocumentation cd = inheritance != null
+                ? inheritance.resolve(typeElement)
+                : ClassDocumentation.fromClassDoc(docEnv, typeElement);
+        if (usage != null) {
+            // Inherited documentation is shared, only the written copy is pruned.
+            cd = cd.withMembers(usage.members(docEnv.getElementUtils().getBinaryName(typeElement).toString()));
+        }
+        return cd;
+    }
+
+    private UsageManifest readUsageManifest() {
+        if (usageManifest == null) {
+            return null;
+        }
+        try {
+            UsageManifest usage = UsageManifest.read(Paths.get(usageManifest));
+            if (usage == null) {
+                reporter.print(Diagnostic.Kind.NOTE,
+                        "Usage manifest " + usageManifest + " not found, documenting all classes");
+            }
+            return usage;
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new DocletAbortException("Error reading usage manifest: " + e);
+        }
+    }
+
+    private static List<String> readManifest(Path destinationDir) {
+        try {
+            return JavadocManifestWriter.read(destinationDir);
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new DocletAbortException("Error reading manifest file: " + e);
+        }
+    }
+
     private Path getDestinationDir() {
         String path = Objects.requireNonNullElse(directoryLocationPath, "../generated-javadoc-json");
         return Paths.get(path).toAbsolutePath();
@@ -106,10 +246,43 @@ public class ExtractDocumentationAsJsonDoclet extends StandardDoclet {
         allOptions.remove(locationOption);
         allOptions.add(wrapped);
 
+        allOptions.add(new DocletOption("--javadoc-index", null,
+                "Write a single Javadoc index file instead of one JSON file per class",
+                arguments -> javadocIndex = true));
+        allOptions.add(new DocletOption("--parallel", "<threads>",
+                "Serialize and write the files concurrently with the given number of threads",
+                arguments -> parallelThreads = parseThreads(arguments.get(0))));
+        allOptions.add(new DocletOption("--reachable-only", null,
+                "Only document controllers and the classes reachable from their methods",
+                arguments -> reachableOnly = true));
+        allOptions.add(new DocletOption("--include-packages", "<packages>",
+                "Document the classes of the comma separated packages",
+                arguments -> includedPackages = arguments.get(0)));
+        allOptions.add(new DocletOption("--exclude-packages", "<packages>",
+                "Do not document the classes of the comma separated packages",
+                arguments -> excludedPackages = arguments.get(0)));
+        allOptions.add(new DocletOption("--inherit-comments", null,
+                "Add the method comments of the super classes and interfaces to the classes",
+                arguments -> inheritComments = true));
+        allOptions.add(new DocletOption("--compact", null,
+                "Write single letter keys and leave out empty values",
+                arguments -> compact = true));
+        allOptions.add(new DocletOption("--usage-manifest", "<file>",
+                "Only document the classes and members listed in the usage manifest",
+                arguments -> usageManifest = arguments.get(0)));
+
         return allOptions;
     }
 
-    private static PackageElement findPackageElement(Element classOrInterface) {
+    private static int parseThreads(String threads) {
+        try {
+            return Integer.parseInt(threads);
+        } catch (NumberFormatException e) {
+            throw new DocletAbortException("Invalid number of threads: " + threads);
+        }
+    }
+
+    static PackageElement findPackageElement(Element classOrInterface) {
         Element pkg = classOrInterface.getEnclosingElement();
         int i = 10;
         while (!ElementKind.PACKAGE.equals(pkg.getKind())) {
@@ -122,22 +295,36 @@ public class ExtractDocumentationAsJsonDoclet extends StandardDoclet {
         return (PackageElement) pkg;
     }
 
-    private static void writeToFile(Path destinationDir, ObjectMapper mapper,
-            PackageElement packageElement, TypeElement classOrInterface,
-            ClassDocumentation cd) {
+    private static void writeToFile(Path path, ObjectMapper mapper, ClassDocumentation cd) {
         try {
-            Path path = path(destinationDir, packageElement, classOrInterface);
-            try (BufferedWriter writer = Files.newBufferedWriter(path, UTF_8)) {
-                mapper.writerFor(ClassDocumentation.class).writeValue(writer, cd);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
             }
+            writeIfChanged(path, serialize(mapper, cd));
         } catch (IOException e) {
             e.printStackTrace();
             throw new DocletAbortException("Error writing file: " + e);
         }
     }
 
-    private static Path path(Path destinationDir, PackageElement packageElement,
-            TypeElement classOrInterface) throws IOException {
+    private static byte[] serialize(ObjectMapper mapper, ClassDocumentation cd) {
+        try {
+            return mapper.writerFor(ClassDocumentation.class).writeValueAsBytes(cd);
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new DocletAbortException("Error serializing class: " + e);
+        }
+    }
+
+    static String indexKey(PackageElement packageElement, TypeElement classOrInterface) {
+        String packageName = packageElement.getQualifiedName().toString();
+        String filename = classOrInterface.getQualifiedName().toString()
+                .replace(packageName + ".", "") + ".json";
+        return packageName.isEmpty() ? filename : packageName.replace(".", "/") + "/" + filename;
+    }
+
+    static Path path(Path destinationDir, PackageElement packageElement,
+            TypeElement classOrInterface) {
         String packageName = packageElement.getQualifiedName().toString();
         String packageDir = packageName.replace(".", File.separator);
         Path packagePath = Paths.get(packageDir);
@@ -149,20 +336,25 @@ public class ExtractDocumentationAsJsonDoclet extends StandardDoclet {
             path = packagePath;
         }
 
-        Files.createDirectories(path);
-
         String filename = classOrInterface.getQualifiedName().toString()
                 .replace(packageElement.getQualifiedName() + ".", "");
         return path.resolve(filename + ".json");
     }
 
-    private static ObjectMapper createObjectMapper() {
+    /**
+     * @param compact whether to write single letter keys and leave out empty values
+     */
+    static ObjectMapper createObjectMapper(boolean compact) {
         ObjectMapper mapper = new ObjectMapper();
         mapper.setVisibility(mapper.getSerializationConfig().getDefaultVisibilityChecker()
                 .withFieldVisibility(JsonAutoDetect.Visibility.ANY)
                 .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
                 .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
                 .withCreatorVisibility(JsonAutoDetect.Visibility.NONE));
+        if (compact) {
+            mapper.setPropertyNamingStrategy(new CompactPropertyNamingStrategy());
+            mapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
+        }
         return mapper;
     }
 }
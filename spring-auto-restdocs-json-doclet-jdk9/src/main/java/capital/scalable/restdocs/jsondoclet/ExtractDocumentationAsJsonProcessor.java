@@ -0,0 +1,209 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Json Doclet for JDK9+
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.jsondoclet;
+
+import static capital.scalable.restdocs.jsondoclet.DocletUtils.writeIfChanged;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.source.util.DocTrees;
+
+/**
+ * Annotation processor writing the same JSON files as {@link ExtractDocumentationAsJsonDoclet}
+ * while the sources are compiled, so that no separate Javadoc run is needed.
+ * <p>
+ * The JSON files are written next to the class files, where Spring Auto REST Docs finds them on
+ * the class path. Each file is created with its class as originating element and only the
+ * classes compiled in a run are written, which works with incremental compilation.
+ * <p>
+ * Supported options:
+ * <ul>
+ * <li>{@code -Arestdocs.javadocJsonDir=<dir>}: write the JSON files into the given directory
+ * instead, files with unchanged content are not written again</li>
+ * <li>{@code -Arestdocs.javadocJsonCompact=true}: write single letter keys and leave out empty
+ * values</li>
+ * <li>{@code -Arestdocs.javadocRegistry=<class name>}: generate a Javadoc registry class with the
+ * given name instead of JSON files, which Spring Auto REST Docs finds with
+ * {@link java.util.ServiceLoader}</li>
+ * </ul>
+ * No manifest is written, because an incremental compilation only sees the recompiled classes.
+ * <p>
+ * The registry is generated in the first round, so classes generated by other annotation
+ * processors are not part of it. As the registry covers all compiled classes, the processor is
+ * aggregating for Gradle's incremental compilation in this mode and isolating otherwise.
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions({
+        ExtractDocumentationAsJsonProcessor.JAVADOC_JSON_DIR_OPTION,
+        ExtractDocumentationAsJsonProcessor.JAVADOC_JSON_COMPACT_OPTION,
+        ExtractDocumentationAsJsonProcessor.JAVADOC_REGISTRY_OPTION})
+public class ExtractDocumentationAsJsonProcessor extends AbstractProcessor {
+
+    static final String JAVADOC_JSON_DIR_OPTION = "restdocs.javadocJsonDir";
+
+    static final String JAVADOC_JSON_COMPACT_OPTION = "restdocs.javadocJsonCompact";
+
+    static final String JAVADOC_REGISTRY_OPTION = "restdocs.javadocRegistry";
+
+    private static final String GRADLE_ISOLATING = "org.gradle.annotation.processing.isolating";
+
+    private static final String GRADLE_AGGREGATING = "org.gradle.annotation.processing.aggregating";
+
+    private DocTrees docTrees;
+
+    private ObjectMapper mapper;
+
+    private Path destinationDir;
+
+    private String registryClassName;
+
+    private JavadocRegistryGenerator registry;
+
+    private final List<Element> registeredTypes = new ArrayList<>();
+
+    private boolean registryWritten;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        docTrees = DocTrees.instance(processingEnv);
+        mapper = ExtractDocumentationAsJsonDoclet.createObjectMapper(Boolean.parseBoolean(
+                processingEnv.getOptions().get(JAVADOC_JSON_COMPACT_OPTION)));
+        String dir = processingEnv.getOptions().get(JAVADOC_JSON_DIR_OPTION);
+        destinationDir = dir != null ? Paths.get(dir).toAbsolutePath() : null;
+        registryClassName = processingEnv.getOptions().get(JAVADOC_REGISTRY_OPTION);
+        registry = registryClassName != null ? new JavadocRegistryGenerator() : null;
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        Set<String> options = new HashSet<>(super.getSupportedOptions());
+        options.add(registryClassName != null ? GRADLE_AGGREGATING : GRADLE_ISOLATING);
+        return options;
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (registryWritten) {
+            // The registry is written once, classes of later rounds are not added.
+            return false;
+        }
+        for (TypeElement typeElement : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            processType(typeElement);
+        }
+        if (registry != null && !registeredTypes.isEmpty()) {
+            writeRegistry();
+            registryWritten = true;
+        }
+        // other processors may process the same annotations
+        return false;
+    }
+
+    private void processType(TypeElement typeElement) {
+        ClassDocumentation cd = ClassDocumentation.fromClassDoc(
+                processingEnv.getElementUtils(), docTrees, typeElement);
+        if (registry != null) {
+            registry.add(processingEnv.getElementUtils().getBinaryName(typeElement).toString(), cd);
+            registeredTypes.add(typeElement);
+        } else {
+            writeJson(typeElement, cd);
+        }
+
+        for (TypeElement nested : ElementFilter.typesIn(typeElement.getEnclosedElements())) {
+            processType(nested);
+        }
+    }
+
+    private void writeJson(TypeElement typeElement, ClassDocumentation cd) {
+        PackageElement packageElement = ExtractDocumentationAsJsonDoclet.findPackageElement(typeElement);
+        try {
+            byte[] json = mapper.writerFor(ClassDocumentation.class).writeValueAsBytes(cd);
+            if (destinationDir != null) {
+                Path path = ExtractDocumentationAsJsonDoclet.path(destinationDir, packageElement, typeElement);
+                Files.createDirectories(path.getParent());
+                writeIfChanged(path, json);
+            } else {
+                writeResource(packageElement, typeElement, json);
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Error writing Javadoc JSON file: " + e, typeElement);
+        }
+    }
+
+    private void writeResource(PackageElement packageElement, TypeElement typeElement, byte[] json)
+            throws IOException {
+        String key = ExtractDocumentationAsJsonDoclet.indexKey(packageElement, typeElement);
+        FileObject resource = processingEnv.getFiler().createResource(
+                StandardLocation.CLASS_OUTPUT, "", key, typeElement);
+        try (OutputStream out = resource.openOutputStream()) {
+            out.write(json);
+        }
+    }
+
+    private void writeRegistry() {
+        Element[] originatingElements = registeredTypes.toArray(new Element[0]);
+        try {
+            JavaFileObject source = processingEnv.getFiler()
+                    .createSourceFile(registryClassName, originatingElements);
+            try (Writer writer = source.openWriter()) {
+                registry.write(registryClassName, writer);
+            }
+            FileObject serviceFile = processingEnv.getFiler().createResource(
+                    StandardLocation.CLASS_OUTPUT, "", JavadocRegistryGenerator.SERVICE_FILE,
+                    originatingElements);
+            try (Writer writer = serviceFile.openWriter()) {
+                writer.write(registryClassName + "\n");
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Error writing Javadoc registry: " + e);
+        }
+    }
+}
@@ -24,12 +24,14 @@ import static capital.scalable.restdocs.jsondoclet.DocletUtils.cleanupTagName;
 import static capital.scalable.restdocs.jsondoclet.DocletUtils.cleanupTagValue;
 
 import javax.lang.model.element.Element;
+import javax.lang.model.util.Elements;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
 import com.sun.source.doctree.BlockTagTree;
 import com.sun.source.doctree.DocTree;
+import com.sun.source.util.DocTrees;
 import jdk.javadoc.doclet.DocletEnvironment;
 
 public class FieldDocumentation {
@@ -51,16 +53,29 @@ public class FieldDocumentation {
 
     public static FieldDocumentation fromFieldDoc(DocletEnvironment docEnv,
             Element fieldElement) {
+        return fromFieldDoc(docEnv.getElementUtils(), docEnv.getDocTrees(), fieldElement);
+    }
+
+    public static FieldDocumentation fromFieldDoc(Elements elements, DocTrees docTrees,
+            Element fieldElement) {
         FieldDocumentation fd = fromString(
-            cleanupDocComment(docEnv.getElementUtils().getDocComment(fieldElement)));
+            cleanupDocComment(elements.getDocComment(fieldElement)));
 
-        Optional.ofNullable(docEnv.getDocTrees().getDocCommentTree(fieldElement))
+        Optional.ofNullable(docTrees.getDocCommentTree(fieldElement))
                 .ifPresent(docCommentTree -> docCommentTree.getBlockTags()
                         .forEach(tag -> fd.addTag(tag)));
 
         return fd;
     }
 
+    String getComment() {
+        return comment;
+    }
+
+    Map<String, String> getTags() {
+        return tags;
+    }
+
     public static FieldDocumentation fromString(String comment) {
         return new FieldDocumentation(comment);
     }
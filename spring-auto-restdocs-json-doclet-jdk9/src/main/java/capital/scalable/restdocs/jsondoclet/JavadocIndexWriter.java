@@ -0,0 +1,107 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Json Doclet for JDK9+
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.jsondoclet;
+
+import static capital.scalable.restdocs.jsondoclet.DocletUtils.writeIfChanged;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the documentation of all classes into a single index file instead of one JSON file
+ * per class.
+ * <p>
+ * The layout is read by {@code capital.scalable.restdocs.javadoc.JavadocIndex} in Spring Auto
+ * REST Docs Core: a header, an open addressing hash table over the {@link String#hashCode()}
+ * of the relative JSON file paths and the UTF-8 encoded keys and JSON documents.
+ */
+class JavadocIndexWriter {
+    static final String FILE_NAME = "auto-restdocs-javadoc.idx";
+
+    private static final int MAGIC = 0x53415244;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+    private static final int SLOT_SIZE = 20;
+
+    private final List<String> keys = new ArrayList<>();
+    private final List<byte[]> values = new ArrayList<>();
+
+    /**
+     * @param key  relative path of the class' JSON file with "/" as separator
+     * @param json UTF-8 encoded JSON documentation of the class
+     */
+    void add(String key, byte[] json) {
+        keys.add(key);
+        values.add(json);
+    }
+
+    void write(Path destinationDir) throws IOException {
+        int slotCount = slotCount(keys.size());
+        int[][] slots = new int[slotCount][];
+        int offset = HEADER_SIZE + slotCount * SLOT_SIZE;
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            int keyLength = key.getBytes(UTF_8).length;
+            int valueLength = values.get(i).length;
+            int slot = key.hashCode() & (slotCount - 1);
+            while (slots[slot] != null) {
+                slot = (slot + 1) & (slotCount - 1);
+            }
+            slots[slot] = new int[]{key.hashCode(), offset, keyLength, offset + keyLength,
+                    valueLength};
+            offset += keyLength + valueLength;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(offset);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(slotCount);
+            for (int[] slot : slots) {
+                for (int i = 0; i < 5; i++) {
+                    out.writeInt(slot != null ? slot[i] : 0);
+                }
+            }
+            for (int i = 0; i < keys.size(); i++) {
+                out.write(keys.get(i).getBytes(UTF_8));
+                out.write(values.get(i));
+            }
+        }
+        Files.createDirectories(destinationDir);
+        writeIfChanged(destinationDir.resolve(FILE_NAME), bytes.toByteArray());
+    }
+
+    /**
+     * Power of two with a load factor of at most 0.5.
+     */
+    private static int slotCount(int entries) {
+        int slotCount = 2;
+        while (slotCount < entries * 2) {
+            slotCount <<= 1;
+        }
+        return slotCount;
+    }
+}
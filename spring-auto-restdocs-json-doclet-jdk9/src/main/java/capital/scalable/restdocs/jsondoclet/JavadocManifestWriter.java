@@ -0,0 +1,125 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Json Doclet for JDK9+
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.jsondoclet;
+
+import static capital.scalable.restdocs.jsondoclet.DocletUtils.writeIfChanged;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes the list of documented classes to {@code META-INF/auto-restdocs/javadoc-index}.
+ * <p>
+ * When the generated documentation is packaged into a jar, Spring Auto REST Docs Core reads
+ * this manifest once instead of looking up every class on the class path. The doclet uses the
+ * manifest of the previous run to remove the documentation of deleted classes.
+ * <p>
+ * Several runs can write to the same directory, e.g. one per source set. A run only removes the
+ * files of the packages it documents and keeps the entries of the other packages.
+ */
+class JavadocManifestWriter {
+    static final String FILE_NAME = "META-INF/auto-restdocs/javadoc-index";
+
+    private final List<String> entries = new ArrayList<>();
+    private final Set<String> ownedPackages = new HashSet<>();
+    private final Set<String> keptEntries = new HashSet<>();
+
+    /**
+     * @param entry relative path of a JSON file or of the index file with "/" as separator
+     */
+    void add(String entry) {
+        entries.add(entry);
+    }
+
+    /**
+     * @param packagePath package of a class included in this run with "/" as separator, empty
+     *                    for the default package
+     */
+    void addPackage(String packagePath) {
+        ownedPackages.add(packagePath);
+    }
+
+    void write(Path destinationDir) throws IOException {
+        Path file = destinationDir.resolve(FILE_NAME);
+        Files.createDirectories(file.getParent());
+        Set<String> allEntries = new HashSet<>(entries);
+        allEntries.addAll(keptEntries);
+        List<String> sortedEntries = new ArrayList<>(allEntries);
+        Collections.sort(sortedEntries);
+        StringBuilder content = new StringBuilder();
+        for (String entry : sortedEntries) {
+            content.append(entry).append('\n');
+        }
+        writeIfChanged(file, content.toString().getBytes(UTF_8));
+    }
+
+    /**
+     * @return the entries of the manifest written by the previous run or an empty list
+     */
+    static List<String> read(Path destinationDir) throws IOException {
+        Path file = destinationDir.resolve(FILE_NAME);
+        if (!Files.isRegularFile(file)) {
+            return Collections.emptyList();
+        }
+        return Files.readAllLines(file, UTF_8);
+    }
+
+    /**
+     * Deletes the files of the previous run that were not written again, e.g. because their
+     * class was deleted. Files of packages that are not included in this run were written by
+     * another run and are kept.
+     *
+     * @param previousEntries entries of the manifest of the previous run
+     */
+    void removeStaleFiles(Path destinationDir, List<String> previousEntries) throws IOException {
+        Path root = destinationDir.normalize();
+        Set<String> currentEntries = new HashSet<>(entries);
+        for (String entry : previousEntries) {
+            String previousEntry = entry.trim();
+            if (previousEntry.isEmpty() || currentEntries.contains(previousEntry)) {
+                continue;
+            }
+            if (!isOwned(previousEntry)) {
+                keptEntries.add(previousEntry);
+                continue;
+            }
+            Path file = root.resolve(previousEntry).normalize();
+            if (file.startsWith(root)) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private boolean isOwned(String entry) {
+        if (entry.equals(JavadocIndexWriter.FILE_NAME)) {
+            // the index file is replaced by every run
+            return true;
+        }
+        int separator = entry.lastIndexOf('/');
+        return ownedPackages.contains(separator < 0 ? "" : entry.substring(0, separator));
+    }
+}
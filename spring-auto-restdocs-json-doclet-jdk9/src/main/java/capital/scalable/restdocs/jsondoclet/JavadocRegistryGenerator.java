@@ -0,0 +1,161 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Json Doclet for JDK9+
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.jsondoclet;
+
+import static org.apache.commons.text.StringEscapeUtils.escapeJava;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Generates the source of a {@code capital.scalable.restdocs.javadoc.JavadocRegistry} holding
+ * the documentation of the added classes as constants.
+ * <p>
+ * Each class is registered in a nested class of its own and these are called from nested group
+ * classes of a limited size, so that large registries stay within the size limits of methods
+ * and constant pools.
+ */
+class JavadocRegistryGenerator {
+    static final String REGISTRY_INTERFACE = "capital.scalable.restdocs.javadoc.JavadocRegistry";
+    static final String SERVICE_FILE = "META-INF/services/" + REGISTRY_INTERFACE;
+    private static final int DEFAULT_CLASSES_PER_GROUP = 1000;
+
+    private final Map<String, ClassDocumentation> classes = new TreeMap<>();
+    private final int classesPerGroup;
+
+    JavadocRegistryGenerator() {
+        this(DEFAULT_CLASSES_PER_GROUP);
+    }
+
+    /**
+     * Used for testing.
+     */
+    JavadocRegistryGenerator(int classesPerGroup) {
+        this.classesPerGroup = classesPerGroup;
+    }
+
+    /**
+     * Adds the class, unless it has no documentation at all.
+     *
+     * @param className binary name of the class, e.g. {@code com.example.Outer$Inner}
+     */
+    void add(String className, ClassDocumentation cd) {
+        if (hasDocumentation(cd)) {
+            classes.put(className, cd);
+        }
+    }
+
+    void write(String registryClassName, Writer writer) {
+        PrintWriter out = new PrintWriter(writer);
+        int packageEnd = registryClassName.lastIndexOf('.');
+        if (packageEnd > 0) {
+            out.println("package " + registryClassName.substring(0, packageEnd) + ";");
+            out.println();
+        }
+        out.println("/**");
+        out.println(" * Javadoc registry generated by Spring Auto REST Docs.");
+        out.println(" */");
+        out.println("public final class " + registryClassName.substring(packageEnd + 1)
+                + " implements " + REGISTRY_INTERFACE + " {");
+        out.println();
+        out.println("    @Override");
+        out.println("    public void register(Registrar registrar) {");
+        int groups = (classes.size() + classesPerGroup - 1) / classesPerGroup;
+        for (int g = 0; g < groups; g++) {
+            out.println("        G" + g + ".register(registrar);");
+        }
+        out.println("    }");
+
+        for (int g = 0; g < groups; g++) {
+            out.println();
+            out.println("    private static final class G" + g + " {");
+            out.println("        static void register(Registrar r) {");
+            int end = Math.min(classes.size(), (g + 1) * classesPerGroup);
+            for (int i = g * classesPerGroup; i < end; i++) {
+                out.println("            C" + i + ".register(r);");
+            }
+            out.println("        }");
+            out.println("    }");
+        }
+
+        int i = 0;
+        for (Map.Entry<String, ClassDocumentation> entry : classes.entrySet()) {
+            out.println();
+            out.println("    private static final class C" + i++ + " {");
+            out.println("        static void register(Registrar r) {");
+            writeClass(out, entry.getKey(), entry.getValue());
+            out.println("        }");
+            out.println("    }");
+        }
+        out.println("}");
+        out.flush();
+    }
+
+    private static void writeClass(PrintWriter out, String className, ClassDocumentation cd) {
+        out.println("            String c = " + literal(className) + ";");
+        if (isNotEmpty(cd.getComment())) {
+            out.println("            r.classComment(c, " + literal(cd.getComment()) + ");");
+        }
+        if (cd.isInheritanceResolved()) {
+            out.println("            r.inheritanceResolved(c);");
+        }
+        new TreeMap<>(cd.getFields()).forEach((name, field) -> {
+            if (isNotEmpty(field.getComment())) {
+                out.println("            r.fieldComment(c, " + literal(name) + ", "
+                        + literal(field.getComment()) + ");");
+            }
+            new TreeMap<>(field.getTags()).forEach((tag, text) ->
+                    out.println("            r.fieldTag(c, " + literal(name) + ", "
+                            + literal(tag) + ", " + literal(text) + ");"));
+        });
+        new TreeMap<>(cd.getMethods()).forEach((name, method) -> {
+            if (isNotEmpty(method.getComment())) {
+                out.println("            r.methodComment(c, " + literal(name) + ", "
+                        + literal(method.getComment()) + ");");
+            }
+            new TreeMap<>(method.getParameters()).forEach((parameter, text) ->
+                    out.println("            r.methodParameterComment(c, " + literal(name) + ", "
+                            + literal(parameter) + ", " + literal(text) + ");"));
+            new TreeMap<>(method.getTags()).forEach((tag, text) ->
+                    out.println("            r.methodTag(c, " + literal(name) + ", "
+                            + literal(tag) + ", " + literal(text) + ");"));
+        });
+    }
+
+    private static boolean hasDocumentation(ClassDocumentation cd) {
+        return isNotEmpty(cd.getComment()) || cd.isInheritanceResolved()
+                || cd.getFields().values().stream().anyMatch(
+                        field -> isNotEmpty(field.getComment()) || !field.getTags().isEmpty())
+                || cd.getMethods().values().stream().anyMatch(
+                        method -> isNotEmpty(method.getComment())
+                                || !method.getParameters().isEmpty()
+                                || !method.getTags().isEmpty());
+    }
+
+    private static boolean isNotEmpty(String text) {
+        return text != null && !text.isEmpty();
+    }
+
+    private static String literal(String text) {
+        return text == null ? "null" : "\"" + escapeJava(text) + "\"";
+    }
+}
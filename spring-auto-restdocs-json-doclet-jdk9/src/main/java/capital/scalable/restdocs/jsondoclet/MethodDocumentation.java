@@ -19,12 +19,15 @@
  */
 package capital.scalable.restdocs.jsondoclet;
 
+import static capital.scalable.restdocs.jsondoclet.DocletUtils.INHERIT_DOC;
 import static capital.scalable.restdocs.jsondoclet.DocletUtils.cleanupDocComment;
 import static capital.scalable.restdocs.jsondoclet.DocletUtils.cleanupTagName;
 import static capital.scalable.restdocs.jsondoclet.DocletUtils.cleanupTagValue;
+import static capital.scalable.restdocs.jsondoclet.DocletUtils.inherit;
 import static org.apache.commons.text.StringEscapeUtils.unescapeJava;
 
 import javax.lang.model.element.Element;
+import javax.lang.model.util.Elements;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -32,6 +35,7 @@ import java.util.Optional;
 import com.sun.source.doctree.BlockTagTree;
 import com.sun.source.doctree.DocTree;
 import com.sun.source.doctree.ParamTree;
+import com.sun.source.util.DocTrees;
 import jdk.javadoc.doclet.DocletEnvironment;
 
 public class MethodDocumentation {
@@ -45,10 +49,15 @@ public class MethodDocumentation {
 
     public static MethodDocumentation fromMethodDoc(DocletEnvironment docEnv,
             Element methodElement) {
+        return fromMethodDoc(docEnv.getElementUtils(), docEnv.getDocTrees(), methodElement);
+    }
+
+    public static MethodDocumentation fromMethodDoc(Elements elements, DocTrees docTrees,
+            Element methodElement) {
         MethodDocumentation md = new MethodDocumentation();
-        md.comment = cleanupDocComment(docEnv.getElementUtils().getDocComment(methodElement));
+        md.comment = cleanupDocComment(elements.getDocComment(methodElement));
 
-        Optional.ofNullable(docEnv.getDocTrees().getDocCommentTree(methodElement))
+        Optional.ofNullable(docTrees.getDocCommentTree(methodElement))
                 .ifPresent(docCommentTree -> docCommentTree.getBlockTags().forEach(tag -> {
                     if (tag.getKind().equals(DocTree.Kind.PARAM)) {
                         ParamTree paramTag = (ParamTree) tag;
@@ -64,4 +73,43 @@ public class MethodDocumentation {
         return md;
     }
 
+    String getComment() {
+        return comment;
+    }
+
+    Map<String, String> getParameters() {
+        return parameters;
+    }
+
+    Map<String, String> getTags() {
+        return tags;
+    }
+
+    MethodDocumentation copy() {
+        MethodDocumentation md = new MethodDocumentation();
+        md.comment = comment;
+        md.parameters.putAll(parameters);
+        md.tags.putAll(tags);
+        return md;
+    }
+
+    /**
+     * Fills in the comment, parameter comments and tags this method does not document itself.
+     */
+    void inheritFrom(MethodDocumentation overridden) {
+        comment = inherit(comment, overridden.comment);
+        overridden.parameters.forEach(
+                (name, text) -> parameters.put(name, inherit(parameters.get(name), text)));
+        overridden.tags.forEach((name, text) -> tags.put(name, inherit(tags.get(name), text)));
+    }
+
+    /**
+     * Removes {@code {@inheritDoc}} that could not be replaced, because none of the super types
+     * documents the method.
+     */
+    void removeInheritDoc() {
+        comment = comment.replace(INHERIT_DOC, "");
+        parameters.replaceAll((name, text) -> text.replace(INHERIT_DOC, ""));
+        tags.replaceAll((name, text) -> text.replace(INHERIT_DOC, ""));
+    }
 }
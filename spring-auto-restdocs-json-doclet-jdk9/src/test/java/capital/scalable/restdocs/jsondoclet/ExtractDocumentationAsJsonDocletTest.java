@@ -22,20 +22,26 @@ package capital.scalable.restdocs.jsondoclet;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.tools.DocumentationTool.DocumentationTask;
 import javax.tools.JavaFileObject;
 import javax.tools.SimpleJavaFileObject;
 import javax.tools.ToolProvider;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.json.JSONException;
 import org.junit.Before;
@@ -46,6 +52,21 @@ public class ExtractDocumentationAsJsonDocletTest {
 
     private static final Path SRC_PATH = FileSystems.getDefault().getPath("src/test/resources").toAbsolutePath();
     private static final Path TGT_PATH = FileSystems.getDefault().getPath("target/test/generated-javadoc-json").toAbsolutePath();
+    private static final Path INCREMENTAL_TGT_PATH = FileSystems.getDefault().getPath("target/test/generated-javadoc-incremental").toAbsolutePath();
+    private static final Path INDEX_TGT_PATH = FileSystems.getDefault().getPath("target/test/generated-javadoc-index").toAbsolutePath();
+    private static final Path SEQUENTIAL_TGT_PATH = FileSystems.getDefault().getPath("target/test/generated-javadoc-sequential").toAbsolutePath();
+    private static final Path PARALLEL_TGT_PATH = FileSystems.getDefault().getPath("target/test/generated-javadoc-parallel").toAbsolutePath();
+    private static final Path REACHABLE_TGT_PATH = FileSystems.getDefault().getPath("target/test/generated-javadoc-reachable").toAbsolutePath();
+    private static final Path EXCLUDED_TGT_PATH = FileSystems.getDefault().getPath("target/test/generated-javadoc-excluded").toAbsolutePath();
+    private static final Path SUPER_TYPES_TGT_PATH = FileSystems.getDefault().getPath("target/test/generated-javadoc-super-types").toAbsolutePath();
+    private static final Path SUB_TYPES_TGT_PATH = FileSystems.getDefault().getPath("target/test/generated-javadoc-sub-types").toAbsolutePath();
+    private static final Path INCLUDED_TGT_PATH = FileSystems.getDefault().getPath("target/test/generated-javadoc-included").toAbsolutePath();
+    private static final Path INHERITANCE_TGT_PATH = FileSystems.getDefault().getPath("target/test/generated-javadoc-inheritance").toAbsolutePath();
+    private static final Path COMPACT_TGT_PATH = FileSystems.getDefault().getPath("target/test/generated-javadoc-compact").toAbsolutePath();
+    private static final Path SHARED_TGT_PATH = FileSystems.getDefault().getPath("target/test/generated-javadoc-shared").toAbsolutePath();
+    private static final Path USAGE_TGT_PATH = FileSystems.getDefault().getPath("target/test/generated-javadoc-usage").toAbsolutePath();
+    private static final String REACHABILITY_PATH = "capital/scalable/restdocs/jsondoclet/reachability/";
+    private static final String INHERITANCE_PATH = "capital/scalable/restdocs/jsondoclet/inheritance/";
 
     private static final String JSON_PATH =
             "capital/scalable/restdocs/jsondoclet/DocumentedClass.json";
@@ -79,13 +100,272 @@ public class ExtractDocumentationAsJsonDocletTest {
             String generated = IOUtils.toString(generatedStream, UTF_8);
             JSONAssert.assertEquals(expected, generated, false);
         }
+        assertEquals(List.of(JSON_PATH),
+                Files.readAllLines(TGT_PATH.resolve(JavadocManifestWriter.FILE_NAME), UTF_8));
     }
 
-    Iterable<JavaFileObject> compilationUnits(Path path) throws IOException {
-        try (InputStream in = new FileInputStream(path.toFile())) {
-            String content = IOUtils.toString(in, UTF_8);
-            return List.of(new InMemoryJavaFileObject(path.toUri(), content));
+    @Test
+    public void testDocumentedClassInIndex() throws IOException {
+        Path source = SRC_PATH.resolve("capital/scalable/restdocs/jsondoclet/DocumentedClass.java");
+        List<String> indexArgs = List.of(
+            "--release", "9",
+            "-private",
+            "-d", INDEX_TGT_PATH.toString(),
+            "--javadoc-index"
+        );
+
+        DocumentationTask task = ToolProvider.getSystemDocumentationTool().getTask(null, null, null, ExtractDocumentationAsJsonDoclet.class, indexArgs, compilationUnits(source));
+
+        boolean result = task.call();
+        assertTrue(result);
+
+        assertFalse(Files.exists(INDEX_TGT_PATH.resolve(JSON_PATH)));
+        String index = new String(Files.readAllBytes(INDEX_TGT_PATH.resolve(JavadocIndexWriter.FILE_NAME)), UTF_8);
+        assertTrue(index.contains(JSON_PATH));
+        assertTrue(index.contains("Path within location"));
+        assertEquals(List.of(JavadocIndexWriter.FILE_NAME),
+                Files.readAllLines(INDEX_TGT_PATH.resolve(JavadocManifestWriter.FILE_NAME), UTF_8));
+    }
+
+    @Test
+    public void testParallelRun() throws IOException {
+        Path source = SRC_PATH.resolve("capital/scalable/restdocs/jsondoclet/DocumentedClass.java");
+        List<String> sequentialArgs = List.of(
+            "--release", "9",
+            "-private",
+            "-d", SEQUENTIAL_TGT_PATH.toString(),
+            "--javadoc-index"
+        );
+        List<String> parallelArgs = List.of(
+            "--release", "9",
+            "-private",
+            "-d", PARALLEL_TGT_PATH.toString(),
+            "--javadoc-index",
+            "--parallel", "4"
+        );
+
+        assertTrue(ToolProvider.getSystemDocumentationTool().getTask(null, null, null, ExtractDocumentationAsJsonDoclet.class, sequentialArgs, compilationUnits(source)).call());
+        assertTrue(ToolProvider.getSystemDocumentationTool().getTask(null, null, null, ExtractDocumentationAsJsonDoclet.class, parallelArgs, compilationUnits(source)).call());
+
+        assertArrayEquals(Files.readAllBytes(SEQUENTIAL_TGT_PATH.resolve(JavadocIndexWriter.FILE_NAME)),
+                Files.readAllBytes(PARALLEL_TGT_PATH.resolve(JavadocIndexWriter.FILE_NAME)));
+        assertEquals(Files.readAllLines(SEQUENTIAL_TGT_PATH.resolve(JavadocManifestWriter.FILE_NAME), UTF_8),
+                Files.readAllLines(PARALLEL_TGT_PATH.resolve(JavadocManifestWriter.FILE_NAME), UTF_8));
+    }
+
+    @Test
+    public void testIncrementalRun() throws IOException {
+        Path source = SRC_PATH.resolve("capital/scalable/restdocs/jsondoclet/DocumentedClass.java");
+        String deletedPath = "capital/scalable/restdocs/jsondoclet/DeletedClass.json";
+        List<String> incrementalArgs = List.of(
+            "--release", "9",
+            "-private",
+            "-d", INCREMENTAL_TGT_PATH.toString()
+        );
+
+        assertTrue(ToolProvider.getSystemDocumentationTool().getTask(null, null, null, ExtractDocumentationAsJsonDoclet.class, incrementalArgs, compilationUnits(source)).call());
+        Path jsonFile = INCREMENTAL_TGT_PATH.resolve(JSON_PATH);
+        FileTime lastModified = FileTime.fromMillis(System.currentTimeMillis() - 60_000);
+        Files.setLastModifiedTime(jsonFile, lastModified);
+        // pretend that a deleted class was documented by the first run
+        Files.write(INCREMENTAL_TGT_PATH.resolve(deletedPath), "{}".getBytes(UTF_8));
+        Files.write(INCREMENTAL_TGT_PATH.resolve(JavadocManifestWriter.FILE_NAME), List.of(JSON_PATH, deletedPath), UTF_8);
+
+        assertTrue(ToolProvider.getSystemDocumentationTool().getTask(null, null, null, ExtractDocumentationAsJsonDoclet.class, incrementalArgs, compilationUnits(source)).call());
+
+        assertEquals(lastModified, Files.getLastModifiedTime(jsonFile));
+        assertFalse(Files.exists(INCREMENTAL_TGT_PATH.resolve(deletedPath)));
+        assertEquals(List.of(JSON_PATH),
+                Files.readAllLines(INCREMENTAL_TGT_PATH.resolve(JavadocManifestWriter.FILE_NAME), UTF_8));
+    }
+
+    @Test
+    public void testRunsSharingDestinationDir() throws IOException {
+        FileUtils.deleteDirectory(SHARED_TGT_PATH.toFile());
+        List<String> sharedArgs = List.of(
+            "--release", "9",
+            "-private",
+            "-d", SHARED_TGT_PATH.toString()
+        );
+
+        assertTrue(ToolProvider.getSystemDocumentationTool().getTask(null, null, null, ExtractDocumentationAsJsonDoclet.class, sharedArgs, compilationUnits(
+                SRC_PATH.resolve(INHERITANCE_PATH + "ItemRepository.java"))).call());
+        assertTrue(ToolProvider.getSystemDocumentationTool().getTask(null, null, null, ExtractDocumentationAsJsonDoclet.class, sharedArgs, compilationUnits(
+                SRC_PATH.resolve(JSON_PATH.replace(".json", ".java")))).call());
+
+        assertTrue(Files.exists(SHARED_TGT_PATH.resolve(INHERITANCE_PATH + "ItemRepository.json")));
+        assertTrue(Files.exists(SHARED_TGT_PATH.resolve(INHERITANCE_PATH + "InMemoryItemRepository.json")));
+        assertTrue(Files.exists(SHARED_TGT_PATH.resolve(JSON_PATH)));
+        assertEquals(List.of(JSON_PATH,
+                INHERITANCE_PATH + "InMemoryItemRepository.json",
+                INHERITANCE_PATH + "ItemRepository.json"),
+                Files.readAllLines(SHARED_TGT_PATH.resolve(JavadocManifestWriter.FILE_NAME), UTF_8));
+    }
+
+    @Test
+    public void testReachableOnly() throws IOException {
+        assertTrue(runReachabilityDoclet(REACHABLE_TGT_PATH, "--reachable-only"));
+        assertEquals(List.of(
+                REACHABILITY_PATH + "AbstractOrderController.json",
+                REACHABILITY_PATH + "BaseItem.json",
+                REACHABILITY_PATH + "CardPayment.json",
+                REACHABILITY_PATH + "InvoicePayment.json",
+                REACHABILITY_PATH + "Item.json",
+                REACHABILITY_PATH + "ItemController.json",
+                REACHABILITY_PATH + "ItemFilter.json",
+                REACHABILITY_PATH + "Order.json",
+                REACHABILITY_PATH + "OrderApi.json",
+                REACHABILITY_PATH + "OrderController.json",
+                REACHABILITY_PATH + "OrderHistory.json",
+                REACHABILITY_PATH + "OrderQuery.json",
+                REACHABILITY_PATH + "Owner.json",
+                REACHABILITY_PATH + "Payment.json",
+                REACHABILITY_PATH + "audit/Audit.json"),
+                Files.readAllLines(REACHABLE_TGT_PATH.resolve(JavadocManifestWriter.FILE_NAME), UTF_8));
+        assertFalse(Files.exists(REACHABLE_TGT_PATH.resolve(REACHABILITY_PATH + "ItemService.json")));
+
+        assertTrue(runReachabilityDoclet(EXCLUDED_TGT_PATH, "--reachable-only",
+                "--exclude-packages", "capital.scalable.restdocs.jsondoclet.reachability.audit"));
+        assertFalse(Files.readAllLines(EXCLUDED_TGT_PATH.resolve(JavadocManifestWriter.FILE_NAME), UTF_8)
+                .contains(REACHABILITY_PATH + "audit/Audit.json"));
+    }
+
+    @Test
+    public void testReachableThroughControllerSuperTypes() throws IOException {
+        assertTrue(runReachabilityDoclet(SUPER_TYPES_TGT_PATH, "--reachable-only"));
+        // Handler methods of the abstract base controller and the default method of the API interface
+        assertTrue(Files.exists(SUPER_TYPES_TGT_PATH.resolve(REACHABILITY_PATH + "OrderQuery.json")));
+        assertTrue(Files.exists(SUPER_TYPES_TGT_PATH.resolve(REACHABILITY_PATH + "Order.json")));
+        assertTrue(Files.exists(SUPER_TYPES_TGT_PATH.resolve(REACHABILITY_PATH + "OrderHistory.json")));
+    }
+
+    @Test
+    public void testReachableThroughJsonSubTypes() throws IOException {
+        assertTrue(runReachabilityDoclet(SUB_TYPES_TGT_PATH, "--reachable-only"));
+        assertTrue(Files.exists(SUB_TYPES_TGT_PATH.resolve(REACHABILITY_PATH + "Payment.json")));
+        assertTrue(Files.exists(SUB_TYPES_TGT_PATH.resolve(REACHABILITY_PATH + "CardPayment.json")));
+        assertTrue(Files.exists(SUB_TYPES_TGT_PATH.resolve(REACHABILITY_PATH + "InvoicePayment.json")));
+    }
+
+    @Test
+    public void testIncludedPackages() throws IOException {
+        assertTrue(runReachabilityDoclet(INCLUDED_TGT_PATH,
+                "--include-packages", "capital.scalable.restdocs.jsondoclet.reachability.audit"));
+        assertEquals(List.of(REACHABILITY_PATH + "audit/Audit.json"),
+                Files.readAllLines(INCLUDED_TGT_PATH.resolve(JavadocManifestWriter.FILE_NAME), UTF_8));
+    }
+
+    @Test
+    public void testInheritComments() throws IOException, JSONException {
+        List<String> inheritanceArgs = new ArrayList<>(List.of(
+            "--release", "9",
+            "-private",
+            "--inherit-comments",
+            "-d", INHERITANCE_TGT_PATH.toString()
+        ));
+        assertTrue(ToolProvider.getSystemDocumentationTool().getTask(null, null, null, ExtractDocumentationAsJsonDoclet.class, inheritanceArgs, compilationUnits(
+                SRC_PATH.resolve(INHERITANCE_PATH + "ItemRepository.java"))).call());
+
+        String json = new String(Files.readAllBytes(INHERITANCE_TGT_PATH.resolve(INHERITANCE_PATH + "InMemoryItemRepository.json")), UTF_8);
+        JSONAssert.assertEquals("{\"comment\":\"Repository keeping the items in memory.\","
+                + "\"inheritanceResolved\":true,"
+                + "\"methods\":{"
+                + "\"find\":{\"comment\":\"Finds an item. Items are kept in memory.\","
+                + "\"parameters\":{\"id\":\"ID of the item\"},\"tags\":{\"return\":\"the item\"}},"
+                + "\"delete\":{\"comment\":\"Deletes an item.\"}}}", json, false);
+    }
+
+    @Test
+    public void testCompact() throws IOException, JSONException {
+        List<String> compactArgs = new ArrayList<>(List.of(
+            "--release", "9",
+            "-private",
+            "--inherit-comments",
+            "--compact",
+            "-d", COMPACT_TGT_PATH.toString()
+        ));
+        assertTrue(ToolProvider.getSystemDocumentationTool().getTask(null, null, null, ExtractDocumentationAsJsonDoclet.class, compactArgs, compilationUnits(
+                SRC_PATH.resolve(INHERITANCE_PATH + "ItemRepository.java"))).call());
+
+        String json = new String(Files.readAllBytes(COMPACT_TGT_PATH.resolve(INHERITANCE_PATH + "InMemoryItemRepository.json")), UTF_8);
+        JSONAssert.assertEquals("{\"c\":\"Repository keeping the items in memory.\","
+                + "\"i\":true,"
+                + "\"m\":{"
+                + "\"find\":{\"c\":\"Finds an item. Items are kept in memory.\","
+                + "\"p\":{\"id\":\"ID of the item\"},\"t\":{\"return\":\"the item\"}},"
+                + "\"delete\":{\"c\":\"Deletes an item.\"},"
+                + "\"<init>\":{}}}", json, true);
+    }
+
+    @Test
+    public void testUsageManifest() throws IOException, JSONException {
+        Path usageFile = USAGE_TGT_PATH.resolve("javadoc-usage.txt");
+        Files.createDirectories(USAGE_TGT_PATH);
+        Files.write(usageFile, List.of(
+                "capital.scalable.restdocs.jsondoclet.inheritance.InMemoryItemRepository#find",
+                "capital.scalable.restdocs.jsondoclet.inheritance.ItemRepository#find"), UTF_8);
+        List<String> usageArgs = new ArrayList<>(List.of(
+            "--release", "9",
+            "-private",
+            "--inherit-comments",
+            "--usage-manifest", usageFile.toString(),
+            "-d", USAGE_TGT_PATH.toString()
+        ));
+        assertTrue(ToolProvider.getSystemDocumentationTool().getTask(null, null, null, ExtractDocumentationAsJsonDoclet.class, usageArgs, compilationUnits(
+                SRC_PATH.resolve(INHERITANCE_PATH + "ItemRepository.java"),
+                SRC_PATH.resolve(JSON_PATH.replace(".json", ".java")))).call());
+
+        String json = new String(Files.readAllBytes(USAGE_TGT_PATH.resolve(INHERITANCE_PATH + "InMemoryItemRepository.json")), UTF_8);
+        JSONAssert.assertEquals("{\"comment\":\"Repository keeping the items in memory.\","
+                + "\"inheritanceResolved\":true,"
+                + "\"fields\":{},"
+                + "\"methods\":{"
+                + "\"find\":{\"comment\":\"Finds an item. Items are kept in memory.\","
+                + "\"parameters\":{\"id\":\"ID of the item\"},\"tags\":{\"return\":\"the item\"}}}}", json, true);
+        assertTrue(Files.exists(USAGE_TGT_PATH.resolve(INHERITANCE_PATH + "ItemRepository.json")));
+        assertFalse(Files.exists(USAGE_TGT_PATH.resolve(JSON_PATH)));
+    }
+
+    @Test
+    public void testMissingUsageManifest() throws IOException {
+        Path destinationDir = USAGE_TGT_PATH.resolve("missing");
+        List<String> usageArgs = new ArrayList<>(List.of(
+            "--release", "9",
+            "-private",
+            "--usage-manifest", destinationDir.resolve("javadoc-usage.txt").toString(),
+            "-d", destinationDir.toString()
+        ));
+        assertTrue(ToolProvider.getSystemDocumentationTool().getTask(null, null, null, ExtractDocumentationAsJsonDoclet.class, usageArgs, compilationUnits(
+                SRC_PATH.resolve(INHERITANCE_PATH + "ItemRepository.java"))).call());
+
+        assertTrue(Files.exists(destinationDir.resolve(INHERITANCE_PATH + "ItemRepository.json")));
+        assertTrue(Files.exists(destinationDir.resolve(INHERITANCE_PATH + "InMemoryItemRepository.json")));
+    }
+
+    private boolean runReachabilityDoclet(Path destinationDir, String... options) throws IOException {
+        List<String> reachabilityArgs = new ArrayList<>(List.of(
+            "--release", "9",
+            "-private",
+            "-d", destinationDir.toString()
+        ));
+        reachabilityArgs.addAll(List.of(options));
+        return ToolProvider.getSystemDocumentationTool().getTask(null, null, null, ExtractDocumentationAsJsonDoclet.class, reachabilityArgs, compilationUnits(
+                SRC_PATH.resolve(REACHABILITY_PATH + "ItemController.java"),
+                SRC_PATH.resolve(REACHABILITY_PATH + "OrderController.java"),
+                SRC_PATH.resolve(REACHABILITY_PATH + "audit/Audit.java"),
+                SRC_PATH.resolve("com/fasterxml/jackson/annotation/JsonSubTypes.java"),
+                SRC_PATH.resolve("org/springframework/web/bind/annotation/RestController.java"))).call();
+    }
+
+    Iterable<JavaFileObject> compilationUnits(Path... paths) throws IOException {
+        List<JavaFileObject> compilationUnits = new ArrayList<>();
+        for (Path path : paths) {
+            try (InputStream in = new FileInputStream(path.toFile())) {
+                String content = IOUtils.toString(in, UTF_8);
+                compilationUnits.add(new InMemoryJavaFileObject(path.toUri(), content));
+            }
         }
+        return compilationUnits;
     }
 
     static class InMemoryJavaFileObject extends SimpleJavaFileObject {
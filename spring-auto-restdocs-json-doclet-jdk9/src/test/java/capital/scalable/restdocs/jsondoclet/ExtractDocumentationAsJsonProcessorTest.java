@@ -0,0 +1,180 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Json Doclet for JDK9+
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.jsondoclet;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.json.JSONException;
+import org.junit.Test;
+import org.skyscreamer.jsonassert.JSONAssert;
+
+public class ExtractDocumentationAsJsonProcessorTest {
+
+    private static final Path SRC_PATH = FileSystems.getDefault().getPath("src/test/resources").toAbsolutePath();
+    private static final Path CLASSES_TGT_PATH = FileSystems.getDefault().getPath("target/test/processor-classes").toAbsolutePath();
+    private static final Path JSON_TGT_PATH = FileSystems.getDefault().getPath("target/test/processor-javadoc-json").toAbsolutePath();
+    private static final Path KOTLIN_CLASSES_TGT_PATH = FileSystems.getDefault().getPath("target/test/processor-kotlin-classes").toAbsolutePath();
+    private static final Path JSON_CLASSES_TGT_PATH = FileSystems.getDefault().getPath("target/test/processor-json-classes").toAbsolutePath();
+    private static final Path REGISTRY_CLASSES_TGT_PATH = FileSystems.getDefault().getPath("target/test/processor-registry-classes").toAbsolutePath();
+
+    private static final Path GROUPS_CLASSES_TGT_PATH = FileSystems.getDefault().getPath("target/test/processor-registry-groups-classes").toAbsolutePath();
+
+    private static final String JSON_PATH = "capital/scalable/restdocs/jsondoclet/DocumentedClass.json";
+    private static final String INHERITANCE_PACKAGE = "capital.scalable.restdocs.jsondoclet.inheritance.";
+    private static final String REGISTRY_CLASS = INHERITANCE_PACKAGE + "TestJavadocRegistry";
+
+    @Test
+    public void testDocumentedClassInClassOutput() throws IOException, JSONException {
+        assertTrue(compile(CLASSES_TGT_PATH));
+
+        JSONAssert.assertEquals(expectedJson(), readString(CLASSES_TGT_PATH.resolve(JSON_PATH)), false);
+        assertTrue(Files.exists(CLASSES_TGT_PATH.resolve("capital/scalable/restdocs/jsondoclet/DocumentedClass.class")));
+    }
+
+    @Test
+    public void testDocumentedClassInDirectory() throws IOException, JSONException {
+        assertTrue(compile(JSON_CLASSES_TGT_PATH, "-Arestdocs.javadocJsonDir=" + JSON_TGT_PATH));
+
+        JSONAssert.assertEquals(expectedJson(), readString(JSON_TGT_PATH.resolve(JSON_PATH)), false);
+        assertFalse(Files.exists(JSON_CLASSES_TGT_PATH.resolve(JSON_PATH)));
+    }
+
+    @Test
+    public void testKotlinPropertyTags() throws IOException, JSONException {
+        assertTrue(compileSource(KOTLIN_CLASSES_TGT_PATH, "capital/scalable/restdocs/jsondoclet/KotlinDataClass.java"));
+
+        JSONAssert.assertEquals("{\"comment\":\"Kotlin data class like in the Java stub kapt passes to annotation processors.\","
+                        + "\"fields\":{\"name\":{\"comment\":\"Name of the item\"},"
+                        + "\"amount\":{\"comment\":\"Amount of the item\"}}}",
+                readString(KOTLIN_CLASSES_TGT_PATH.resolve("capital/scalable/restdocs/jsondoclet/KotlinDataClass.json")), false);
+        JSONAssert.assertEquals("{\"comment\":\"Nested class\","
+                        + "\"fields\":{\"flag\":{\"comment\":\"Whether the flag is set\"}}}",
+                readString(KOTLIN_CLASSES_TGT_PATH.resolve("capital/scalable/restdocs/jsondoclet/KotlinDataClass.NestedClass.json")), false);
+    }
+
+    @Test
+    public void testJavadocRegistry() throws Exception {
+        assertTrue(compileSources(REGISTRY_CLASSES_TGT_PATH, List.of(
+                "capital/scalable/restdocs/jsondoclet/inheritance/ItemRepository.java",
+                "capital/scalable/restdocs/javadoc/JavadocRegistry.java"),
+                "-Arestdocs.javadocRegistry=" + REGISTRY_CLASS));
+
+        assertEquals(REGISTRY_CLASS + "\n", readString(REGISTRY_CLASSES_TGT_PATH.resolve(
+                "META-INF/services/capital.scalable.restdocs.javadoc.JavadocRegistry")));
+        assertFalse(Files.exists(REGISTRY_CLASSES_TGT_PATH.resolve(
+                "capital/scalable/restdocs/jsondoclet/inheritance/ItemRepository.json")));
+
+        List<String> calls = register(REGISTRY_CLASSES_TGT_PATH, REGISTRY_CLASS);
+
+        assertTrue(calls.contains("classComment[" + INHERITANCE_PACKAGE + "ItemRepository, Repository of items.]"));
+        assertTrue(calls.contains("methodComment[" + INHERITANCE_PACKAGE + "ItemRepository, find, Finds an item.]"));
+        assertTrue(calls.contains("methodParameterComment[" + INHERITANCE_PACKAGE + "ItemRepository, find, id, ID of the item]"));
+        assertTrue(calls.contains("methodTag[" + INHERITANCE_PACKAGE + "ItemRepository, find, return, the item]"));
+        assertTrue(calls.contains("methodComment[" + INHERITANCE_PACKAGE + "InMemoryItemRepository, find, {@inheritDoc} Items are kept in memory.]"));
+    }
+
+    @Test
+    public void testJavadocRegistryInGroups() throws Exception {
+        JavadocRegistryGenerator generator = new JavadocRegistryGenerator(2);
+        for (int i = 0; i < 5; i++) {
+            generator.add("com.example.Item" + i, ClassDocumentation.withComment("Item " + i));
+        }
+        Path sourceDir = GROUPS_CLASSES_TGT_PATH.resolve("src/com/example");
+        Files.createDirectories(sourceDir);
+        StringWriter source = new StringWriter();
+        generator.write("com.example.GroupedJavadocRegistry", source);
+        Files.write(sourceDir.resolve("GroupedJavadocRegistry.java"), source.toString().getBytes(UTF_8));
+
+        assertTrue(source.toString().contains("private static final class G2 {"));
+        assertFalse(source.toString().contains("G3"));
+        assertTrue(compileSources(GROUPS_CLASSES_TGT_PATH, List.of(
+                "capital/scalable/restdocs/javadoc/JavadocRegistry.java",
+                sourceDir.resolve("GroupedJavadocRegistry.java").toString())));
+
+        List<String> calls = register(GROUPS_CLASSES_TGT_PATH, "com.example.GroupedJavadocRegistry");
+        assertEquals(List.of("classComment[com.example.Item0, Item 0]", "classComment[com.example.Item1, Item 1]",
+                "classComment[com.example.Item2, Item 2]", "classComment[com.example.Item3, Item 3]",
+                "classComment[com.example.Item4, Item 4]"), calls);
+    }
+
+    private List<String> register(Path classesDir, String registryClass) throws Exception {
+        List<String> calls = new ArrayList<>();
+        try (URLClassLoader classLoader = new URLClassLoader(
+                new URL[]{classesDir.toUri().toURL()}, getClass().getClassLoader())) {
+            Class<?> registrarType = classLoader.loadClass("capital.scalable.restdocs.javadoc.JavadocRegistry$Registrar");
+            Object registrar = Proxy.newProxyInstance(classLoader, new Class<?>[]{registrarType},
+                    (proxy, method, args) -> calls.add(method.getName() + Arrays.asList(args)));
+            Object registry = classLoader.loadClass(registryClass).getConstructor().newInstance();
+            registry.getClass().getMethod("register", registrarType).invoke(registry, registrar);
+        }
+        return calls;
+    }
+
+    private boolean compile(Path classesDir, String... options) throws IOException {
+        return compileSource(classesDir, "capital/scalable/restdocs/jsondoclet/DocumentedClass.java", options);
+    }
+
+    private boolean compileSource(Path classesDir, String source, String... options) throws IOException {
+        return compileSources(classesDir, List.of(source), options);
+    }
+
+    private boolean compileSources(Path classesDir, List<String> sources, String... options) throws IOException {
+        Files.createDirectories(classesDir);
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, UTF_8)) {
+            Iterable<? extends JavaFileObject> compilationUnits = fileManager.getJavaFileObjects(
+                    sources.stream().map(source -> SRC_PATH.resolve(source).toFile()).toArray(File[]::new));
+            List<String> args = new ArrayList<>(List.of("-d", classesDir.toString()));
+            args.addAll(List.of(options));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, args, null, compilationUnits);
+            task.setProcessors(List.of(new ExtractDocumentationAsJsonProcessor()));
+            return task.call();
+        }
+    }
+
+    private static String expectedJson() throws IOException {
+        return readString(SRC_PATH.resolve(JSON_PATH));
+    }
+
+    private static String readString(Path path) throws IOException {
+        return new String(Files.readAllBytes(path), UTF_8);
+    }
+}
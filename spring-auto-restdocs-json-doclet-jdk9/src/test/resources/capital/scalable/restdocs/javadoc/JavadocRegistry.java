@@ -0,0 +1,46 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Json Doclet for JDK9+
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.javadoc;
+
+/**
+ * Stand-in for the interface of spring-auto-restdocs-annotations, which is not a dependency of
+ * the doclet.
+ */
+public interface JavadocRegistry {
+
+    void register(Registrar registrar);
+
+    interface Registrar {
+        void classComment(String className, String comment);
+
+        void inheritanceResolved(String className);
+
+        void fieldComment(String className, String fieldName, String comment);
+
+        void fieldTag(String className, String fieldName, String tagName, String text);
+
+        void methodComment(String className, String methodName, String comment);
+
+        void methodParameterComment(String className, String methodName, String parameterName,
+                String comment);
+
+        void methodTag(String className, String methodName, String tagName, String text);
+    }
+}
@@ -0,0 +1,61 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Json Doclet for JDK9+
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.jsondoclet;
+
+/**
+ * Kotlin data class like in the Java stub kapt passes to annotation processors.
+ *
+ * @property name Name of the item
+ * @property amount Ignored, because the field is documented
+ */
+public final class KotlinDataClass {
+    private final String name;
+
+    /**
+     * Amount of the item
+     */
+    private final int amount;
+
+    public KotlinDataClass(String name, int amount) {
+        this.name = name;
+        this.amount = amount;
+    }
+
+    public final String getName() {
+        return name;
+    }
+
+    public final int getAmount() {
+        return amount;
+    }
+
+    /**
+     * Nested class
+     *
+     * @property flag Whether the flag is set
+     */
+    public static final class NestedClass {
+        private final boolean flag;
+
+        public NestedClass(boolean flag) {
+            this.flag = flag;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Json Doclet for JDK9+
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.jsondoclet.reachability;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller whose handler methods are declared by its super types.
+ */
+@RestController
+class OrderController extends AbstractOrderController implements OrderApi {
+}
+
+/**
+ * Base class of controllers without controller annotation.
+ */
+abstract class AbstractOrderController {
+    Order order(OrderQuery query) {
+        return null;
+    }
+}
+
+/**
+ * API of the controller with a default implementation.
+ */
+interface OrderApi {
+    default OrderHistory history(String orderId) {
+        return null;
+    }
+}
+
+class OrderQuery {
+    /**
+     * Number of the order
+     */
+    private String number;
+}
+
+class Order {
+    /**
+     * Payment of the order
+     */
+    private Payment payment;
+}
+
+class OrderHistory {
+    /**
+     * Changes of the order
+     */
+    private List<String> changes;
+}
+
+/**
+ * Payment, only referenced by its base type.
+ */
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = CardPayment.class, name = "card"),
+        @JsonSubTypes.Type(value = InvoicePayment.class, name = "invoice")})
+abstract class Payment {
+    /**
+     * Amount paid
+     */
+    private long amount;
+}
+
+class CardPayment extends Payment {
+    /**
+     * Masked card number
+     */
+    private String cardNumber;
+}
+
+class InvoicePayment extends Payment {
+    /**
+     * Due date of the invoice
+     */
+    private String dueDate;
+}
@@ -21,13 +21,19 @@ package capital.scalable.restdocs.jsondoclet;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.sun.javadoc.ClassDoc;
 import com.sun.javadoc.FieldDoc;
 import com.sun.javadoc.MethodDoc;
 
 public final class ClassDocumentation {
+    private static final String CONSTRUCTOR = "<init>";
+
     private String comment = "";
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean inheritanceResolved;
     private final Map<String, FieldDocumentation> fields = new HashMap<>();
     private final Map<String, MethodDocumentation> methods = new HashMap<>();
 
@@ -58,4 +64,55 @@ public final class ClassDocumentation {
     private void addMethod(MethodDoc methodDoc) {
         this.methods.put(methodDoc.name(), MethodDocumentation.fromMethodDoc(methodDoc));
     }
+
+    boolean isInheritanceResolved() {
+        return inheritanceResolved;
+    }
+
+    /**
+     * Adds the documentation of the methods of a super class or interface. Super types have to
+     * be added in the order Spring Auto REST Docs looks them up at runtime: the super class with
+     * its own super types first, then the interfaces.
+     */
+    void inheritFrom(ClassDocumentation superType) {
+        superType.methods.forEach((name, method) -> {
+            if (CONSTRUCTOR.equals(name)) {
+                return;
+            }
+            MethodDocumentation own = methods.get(name);
+            if (own == null) {
+                methods.put(name, method.copy());
+            } else {
+                own.inheritFrom(method);
+            }
+        });
+    }
+
+    /**
+     * @return a copy with only the given fields and methods
+     */
+    ClassDocumentation withMembers(Set<String> names) {
+        ClassDocumentation cd = new ClassDocumentation();
+        cd.comment = comment;
+        cd.inheritanceResolved = inheritanceResolved;
+        fields.forEach((name, field) -> {
+            if (names.contains(name)) {
+                cd.fields.put(name, field);
+            }
+        });
+        methods.forEach((name, method) -> {
+            if (names.contains(name)) {
+                cd.methods.put(name, method);
+            }
+        });
+        return cd;
+    }
+
+    /**
+     * Marks that the documentation of all super types was added with {@link #inheritFrom}.
+     */
+    void setInheritanceResolved() {
+        methods.values().forEach(MethodDocumentation::removeInheritDoc);
+        inheritanceResolved = true;
+    }
 }
@@ -0,0 +1,280 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Json Doclet
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.jsondoclet;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.sun.javadoc.AnnotationDesc;
+import com.sun.javadoc.AnnotationTypeDoc;
+import com.sun.javadoc.AnnotationValue;
+import com.sun.javadoc.ClassDoc;
+import com.sun.javadoc.FieldDoc;
+import com.sun.javadoc.MethodDoc;
+import com.sun.javadoc.Parameter;
+import com.sun.javadoc.ParameterizedType;
+import com.sun.javadoc.ProgramElementDoc;
+import com.sun.javadoc.Type;
+import com.sun.javadoc.WildcardType;
+
+/**
+ * Selects the classes the doclet extracts documentation for.
+ * <p>
+ * By default, all classes are selected. With {@link #setReachableOnly(boolean)}, only controllers
+ * and the classes reachable from the signatures of their methods are selected. The methods of the
+ * super types of controllers, e.g. of an abstract base controller or an API interface, are handler
+ * methods as well. The fields of controllers, e.g. injected services, are not followed. A class is
+ * reachable through the types of its fields, the return types of its getters, its super types and
+ * the classes referenced in its annotations, e.g. the subtypes in {@code @JsonSubTypes}. With
+ * included packages, the classes of these packages are selected as well. Classes of excluded
+ * packages are never selected.
+ * <p>
+ * If a {@link UsageManifest} is set, only the classes listed in it are selected.
+ */
+class ClassSelector {
+    private static final Set<String> CONTROLLER_ANNOTATIONS = new HashSet<>(Arrays.asList(
+            "org.springframework.web.bind.annotation.RestController",
+            "org.springframework.stereotype.Controller"));
+
+    private boolean reachableOnly;
+    private List<String> includedPackages = Collections.emptyList();
+    private List<String> excludedPackages = Collections.emptyList();
+    private UsageManifest usage;
+
+    void setReachableOnly(boolean reachableOnly) {
+        this.reachableOnly = reachableOnly;
+    }
+
+    /**
+     * @param packages comma separated package names, sub packages are included
+     */
+    void setIncludedPackages(String packages) {
+        this.includedPackages = splitPackages(packages);
+    }
+
+    /**
+     * @param packages comma separated package names, sub packages are excluded
+     */
+    void setExcludedPackages(String packages) {
+        this.excludedPackages = splitPackages(packages);
+    }
+
+    /**
+     * @param usage manifest of the used classes or {@code null} to not restrict the classes
+     */
+    void setUsage(UsageManifest usage) {
+        this.usage = usage;
+    }
+
+    /**
+     * @return the selected classes in the order of the given classes
+     */
+    List<ClassDoc> select(ClassDoc[] classes) {
+        boolean selectAll = !reachableOnly && includedPackages.isEmpty();
+        Set<String> reachable = reachableOnly ? reachableClasses(classes) : Collections.<String>emptySet();
+        List<ClassDoc> selected = new ArrayList<>();
+        for (ClassDoc c : classes) {
+            if ((selectAll || reachable.contains(c.qualifiedName()) || isInPackages(c, includedPackages))
+                    && !isInPackages(c, excludedPackages)
+                    && (usage == null || usage.containsClass(UsageManifest.binaryName(c)))) {
+                selected.add(c);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * @return qualified names of the reachable classes
+     */
+    private static Set<String> reachableClasses(ClassDoc[] classes) {
+        Set<String> included = new HashSet<>();
+        for (ClassDoc c : classes) {
+            included.add(c.qualifiedName());
+        }
+        // Controllers and their super types, which need not be part of the documented classes
+        Set<String> handlerTypes = new HashSet<>();
+        Deque<ClassDoc> queue = new ArrayDeque<>();
+        for (ClassDoc c : classes) {
+            if (isController(c, new HashSet<String>())) {
+                addWithSuperTypes(c, handlerTypes, queue);
+            }
+        }
+        Set<String> visited = new HashSet<>(handlerTypes);
+        while (!queue.isEmpty()) {
+            ClassDoc current = queue.poll();
+            boolean controller = handlerTypes.contains(current.qualifiedName());
+            List<Type> referenced = new ArrayList<>();
+            if (current.superclassType() != null) {
+                referenced.add(current.superclassType());
+            }
+            referenced.addAll(Arrays.asList(current.interfaceTypes()));
+            addAnnotationTypes(current, referenced);
+            if (!controller) {
+                for (FieldDoc field : current.fields(false)) {
+                    if (!field.isStatic()) {
+                        referenced.add(field.type());
+                        addAnnotationTypes(field, referenced);
+                    }
+                }
+            }
+            for (MethodDoc method : current.methods(false)) {
+                if (method.isStatic()) {
+                    continue;
+                }
+                if (controller) {
+                    referenced.add(method.returnType());
+                    addAnnotationTypes(method, referenced);
+                    for (Parameter parameter : method.parameters()) {
+                        referenced.add(parameter.type());
+                        addAnnotationTypes(parameter.annotations(), referenced);
+                    }
+                } else if (isGetter(method)) {
+                    referenced.add(method.returnType());
+                    addAnnotationTypes(method, referenced);
+                }
+            }
+            Set<ClassDoc> found = new HashSet<>();
+            for (Type type : referenced) {
+                collectClasses(type, found);
+            }
+            for (ClassDoc c : found) {
+                if (included.contains(c.qualifiedName()) && visited.add(c.qualifiedName())) {
+                    queue.add(c);
+                }
+            }
+        }
+        visited.retainAll(included);
+        return visited;
+    }
+
+    private static void addWithSuperTypes(ClassDoc classDoc, Set<String> types,
+            Deque<ClassDoc> queue) {
+        if (!types.add(classDoc.qualifiedName())) {
+            return;
+        }
+        queue.add(classDoc);
+        if (classDoc.superclass() != null) {
+            addWithSuperTypes(classDoc.superclass(), types, queue);
+        }
+        for (ClassDoc i : classDoc.interfaces()) {
+            addWithSuperTypes(i, types, queue);
+        }
+    }
+
+    private static boolean isController(ProgramElementDoc element, Set<String> visited) {
+        for (AnnotationDesc annotation : element.annotations()) {
+            AnnotationTypeDoc annotationType = annotation.annotationType();
+            if (CONTROLLER_ANNOTATIONS.contains(annotationType.qualifiedName())
+                    || visited.add(annotationType.qualifiedName())
+                    && isController(annotationType, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isGetter(MethodDoc method) {
+        String name = method.name();
+        return method.parameters().length == 0
+                && !"void".equals(method.returnType().typeName())
+                && (name.startsWith("get") || name.startsWith("is"));
+    }
+
+    private static void addAnnotationTypes(ProgramElementDoc element, List<Type> types) {
+        addAnnotationTypes(element.annotations(), types);
+    }
+
+    private static void addAnnotationTypes(AnnotationDesc[] annotations, List<Type> types) {
+        for (AnnotationDesc annotation : annotations) {
+            for (AnnotationDesc.ElementValuePair pair : annotation.elementValues()) {
+                addAnnotationTypes(pair.value(), types);
+            }
+        }
+    }
+
+    private static void addAnnotationTypes(AnnotationValue value, List<Type> types) {
+        Object v = value.value();
+        if (v instanceof Type) {
+            types.add((Type) v);
+        } else if (v instanceof AnnotationDesc) {
+            addAnnotationTypes(new AnnotationDesc[]{(AnnotationDesc) v}, types);
+        } else if (v instanceof AnnotationValue[]) {
+            for (AnnotationValue element : (AnnotationValue[]) v) {
+                addAnnotationTypes(element, types);
+            }
+        }
+    }
+
+    /**
+     * Type variables are not followed, the actual type arguments are reachable where the
+     * generic class is used.
+     */
+    private static void collectClasses(Type type, Set<ClassDoc> classes) {
+        if (type.isPrimitive() || type.asTypeVariable() != null) {
+            return;
+        }
+        WildcardType wildcardType = type.asWildcardType();
+        if (wildcardType != null) {
+            for (Type bound : wildcardType.extendsBounds()) {
+                collectClasses(bound, classes);
+            }
+            for (Type bound : wildcardType.superBounds()) {
+                collectClasses(bound, classes);
+            }
+            return;
+        }
+        ClassDoc classDoc = type.asClassDoc();
+        if (classDoc != null) {
+            classes.add(classDoc);
+        }
+        ParameterizedType parameterizedType = type.asParameterizedType();
+        if (parameterizedType != null) {
+            for (Type argument : parameterizedType.typeArguments()) {
+                collectClasses(argument, classes);
+            }
+        }
+    }
+
+    private static boolean isInPackages(ClassDoc classDoc, List<String> packages) {
+        String packageName = classDoc.containingPackage().name();
+        for (String p : packages) {
+            if (packageName.equals(p) || packageName.startsWith(p + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> splitPackages(String packages) {
+        List<String> result = new ArrayList<>();
+        for (String p : packages.split(",")) {
+            if (!p.trim().isEmpty()) {
+                result.add(p.trim());
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,49 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Json Doclet
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.jsondoclet;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.introspect.AnnotatedField;
+
+/**
+ * Single letter keys of the compact format. Spring Auto REST Docs reads both the compact and
+ * the default keys.
+ */
+class CompactPropertyNamingStrategy extends PropertyNamingStrategy {
+    private static final Map<String, String> NAMES = new HashMap<>();
+
+    static {
+        NAMES.put("comment", "c");
+        NAMES.put("inheritanceResolved", "i");
+        NAMES.put("fields", "f");
+        NAMES.put("methods", "m");
+        NAMES.put("parameters", "p");
+        NAMES.put("tags", "t");
+    }
+
+    @Override
+    public String nameForField(MapperConfig<?> config, AnnotatedField field, String defaultName) {
+        return NAMES.getOrDefault(defaultName, defaultName);
+    }
+}
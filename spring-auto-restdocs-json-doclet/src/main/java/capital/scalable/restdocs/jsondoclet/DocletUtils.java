@@ -19,7 +19,18 @@
  */
 package capital.scalable.restdocs.jsondoclet;
 
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
 public class DocletUtils {
+    static final String INHERIT_DOC = "{@inheritDoc}";
+
     private DocletUtils() {
         // utils
     }
@@ -27,4 +38,47 @@ public class DocletUtils {
     public static String cleanupTagName(String name) {
         return name.startsWith("@") ? name.substring(1) : name;
     }
+
+    /**
+     * @return the inherited text if the own text is blank, otherwise the own text with
+     * {@code {@inheritDoc}} replaced by the inherited text if there is one
+     */
+    static String inherit(String own, String inherited) {
+        if (own == null || own.trim().isEmpty()) {
+            return inherited;
+        }
+        if (inherited != null && !inherited.trim().isEmpty()) {
+            return own.replace(INHERIT_DOC, inherited);
+        }
+        return own;
+    }
+
+    /**
+     * Writes the file only if its content changed, so that the modification time of unchanged
+     * files is kept for caches and incremental builds.
+     * <p>
+     * The content is written to a temporary file that then replaces the file, so that readers
+     * never see a partly written file, e.g. a test JVM that has the index file memory-mapped.
+     *
+     * @return whether the file was written
+     */
+    static boolean writeIfChanged(Path file, byte[] content) throws IOException {
+        if (Files.isRegularFile(file) && Files.size(file) == content.length
+                && Arrays.equals(Files.readAllBytes(file), content)) {
+            return false;
+        }
+        Path tempFile = Files.createTempFile(file.toAbsolutePath().getParent(),
+                file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(tempFile, content);
+            try {
+                Files.move(tempFile, file, ATOMIC_MOVE, REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        return true;
+    }
 }
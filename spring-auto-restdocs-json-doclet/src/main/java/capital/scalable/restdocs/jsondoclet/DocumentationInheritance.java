@@ -0,0 +1,88 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Json Doclet
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.jsondoclet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.sun.javadoc.ClassDoc;
+
+/**
+ * Adds the method documentation of the super classes and interfaces to the documentation of a
+ * class, so that Spring Auto REST Docs does not need to look up the super types at runtime.
+ * <p>
+ * The inheritance is only resolved if all super types, except the ones of the JDK, are part
+ * of the Javadoc run. Otherwise, the class is documented as is and the super types are looked
+ * up at runtime as before.
+ */
+class DocumentationInheritance {
+    private final Map<String, ClassDocumentation> documentation = new HashMap<>();
+
+    ClassDocumentation resolve(ClassDoc classDoc) {
+        ClassDocumentation cd = documentation.get(classDoc.qualifiedName());
+        if (cd == null) {
+            cd = ClassDocumentation.fromClassDoc(classDoc);
+            List<ClassDocumentation> superTypes = superTypes(classDoc);
+            if (superTypes != null) {
+                superTypes.forEach(cd::inheritFrom);
+                cd.setInheritanceResolved();
+            }
+            documentation.put(classDoc.qualifiedName(), cd);
+        }
+        return cd;
+    }
+
+    /**
+     * @return the resolved documentation of the super types in the order in which they are
+     * looked up at runtime or null if one of them can not be resolved
+     */
+    private List<ClassDocumentation> superTypes(ClassDoc classDoc) {
+        List<ClassDoc> superTypes = new ArrayList<>();
+        if (classDoc.superclass() != null) {
+            superTypes.add(classDoc.superclass());
+        }
+        for (ClassDoc i : classDoc.interfaces()) {
+            superTypes.add(i);
+        }
+
+        List<ClassDocumentation> result = new ArrayList<>();
+        for (ClassDoc superType : superTypes) {
+            if (isJdkClass(superType)) {
+                continue;
+            }
+            if (!superType.isIncluded()) {
+                return null;
+            }
+            ClassDocumentation superDoc = resolve(superType);
+            if (!superDoc.isInheritanceResolved()) {
+                return null;
+            }
+            result.add(superDoc);
+        }
+        return result;
+    }
+
+    private static boolean isJdkClass(ClassDoc classDoc) {
+        String name = classDoc.qualifiedName();
+        return name.startsWith("java.") || name.startsWith("javax.");
+    }
+}
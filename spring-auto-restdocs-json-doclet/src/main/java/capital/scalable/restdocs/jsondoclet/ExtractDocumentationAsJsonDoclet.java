@@ -19,16 +19,17 @@
  */
 package capital.scalable.restdocs.jsondoclet;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
+import static capital.scalable.restdocs.jsondoclet.DocletUtils.writeIfChanged;
 
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sun.javadoc.ClassDoc;
 import com.sun.javadoc.RootDoc;
@@ -36,20 +37,180 @@ import com.sun.tools.doclets.standard.Standard;
 
 /**
  * Javadoc to JSON doclet.
+ * <p>
+ * Supported options in addition to {@code -d}:
+ * <ul>
+ * <li>{@code -javadoc-index}: write a single index file instead of one JSON file per class</li>
+ * <li>{@code -parallel <threads>}: serialize and write the files concurrently with the given number of
+ * threads while the documentation of the next classes is extracted</li>
+ * <li>{@code -reachable-only}: only document controllers and the classes reachable from their methods</li>
+ * <li>{@code -include-packages <packages>}: document the classes of the comma separated packages,
+ * in addition to the reachable classes if {@code -reachable-only} is given</li>
+ * <li>{@code -exclude-packages <packages>}: do not document the classes of the comma separated packages</li>
+ * <li>{@code -inherit-comments}: add the method comments of the super classes and interfaces to the
+ * classes, so that the class hierarchy does not need to be looked up at runtime</li>
+ * <li>{@code -compact}: write single letter keys and leave out empty values</li>
+ * <li>{@code -usage-manifest <file>}: only document the classes and members listed in the usage manifest
+ * written by Spring Auto REST Docs, all classes are documented if the file does not exist</li>
+ * </ul>
+ * The written files are listed in {@code META-INF/auto-restdocs/javadoc-index}. Files with unchanged
+ * content are not written again and files of classes that are no longer documented are removed.
  */
 public class ExtractDocumentationAsJsonDoclet extends Standard {
 
+    private static final String JAVADOC_INDEX_OPTION = "-javadoc-index";
+    private static final String PARALLEL_OPTION = "-parallel";
+    private static final String REACHABLE_ONLY_OPTION = "-reachable-only";
+    private static final String INCLUDE_PACKAGES_OPTION = "-include-packages";
+    private static final String EXCLUDE_PACKAGES_OPTION = "-exclude-packages";
+    private static final String INHERIT_COMMENTS_OPTION = "-inherit-comments";
+    private static final String COMPACT_OPTION = "-compact";
+    private static final String USAGE_MANIFEST_OPTION = "-usage-manifest";
+
     public static boolean start(RootDoc root) {
         String destinationDir = destinationDir(root.options());
-        ObjectMapper mapper = createObjectMapper();
+        ObjectMapper mapper = createObjectMapper(hasOption(root.options(), COMPACT_OPTION));
+        JavadocIndexWriter indexWriter =
+                hasOption(root.options(), JAVADOC_INDEX_OPTION) ? new JavadocIndexWriter() : null;
+        JavadocManifestWriter manifestWriter = new JavadocManifestWriter();
+        List<String> previousManifestEntries = readManifest(destinationDir);
+        DocumentationInheritance inheritance =
+                hasOption(root.options(), INHERIT_COMMENTS_OPTION) ? new DocumentationInheritance() : null;
+        UsageManifest usage = readUsageManifest(root);
+
+        try (OutputPipeline pipeline = new OutputPipeline(parallelThreads(root.options()))) {
+            for (ClassDoc classDoc : root.classes()) {
+                manifestWriter.addPackage(classDoc.containingPackage().name().replace('.', '/'));
+            }
+            for (ClassDoc classDoc : selector(root.options(), usage).select(root.classes())) {
+                // The Javadoc API is not thread-safe, only serialization and file I/O run concurrently.
+                ClassDocumentation cd = documentation(inheritance, usage, classDoc);
+                if (indexWriter != null) {
+                    pipeline.submit(indexKey(classDoc), () -> serialize(mapper, cd));
+                } else {
+                    Path path = path(destinationDir, classDoc);
+                    pipeline.submit(indexKey(classDoc), () -> {
+                        writeToFile(path, mapper, cd);
+                        return null;
+                    });
+                }
+            }
+            pipeline.forEachOutput((key, json) -> {
+                if (indexWriter != null) {
+                    indexWriter.add(key, json);
+                } else {
+                    manifestWriter.add(key);
+                }
+            });
+        }
+
+        if (indexWriter != null) {
+            try {
+                indexWriter.write(Paths.get(destinationDir));
+            } catch (IOException e) {
+                e.printStackTrace();
+                throw new DocletAbortException("Error writing index file: " + e);
+            }
+            manifestWriter.add(JavadocIndexWriter.FILE_NAME);
+        }
 
-        for (ClassDoc classDoc : root.classes()) {
-            ClassDocumentation cd = ClassDocumentation.fromClassDoc(classDoc);
-            writeToFile(destinationDir, mapper, classDoc, cd);
+        try {
+            manifestWriter.removeStaleFiles(Paths.get(destinationDir), previousManifestEntries);
+            manifestWriter.write(Paths.get(destinationDir));
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new DocletAbortException("Error writing manifest file: " + e);
         }
         return true;
     }
 
+    private static List<String> readManifest(String destinationDir) {
+        try {
+            return JavadocManifestWriter.read(Paths.get(destinationDir));
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new DocletAbortException("Error reading manifest file: " + e);
+        }
+    }
+
+    public static int optionLength(String option) {
+        if (JAVADOC_INDEX_OPTION.equals(option) || REACHABLE_ONLY_OPTION.equals(option)
+                || INHERIT_COMMENTS_OPTION.equals(option) || COMPACT_OPTION.equals(option)) {
+            return 1;
+        }
+        if (PARALLEL_OPTION.equals(option) || INCLUDE_PACKAGES_OPTION.equals(option)
+                || EXCLUDE_PACKAGES_OPTION.equals(option) || USAGE_MANIFEST_OPTION.equals(option)) {
+            return 2;
+        }
+        return Standard.optionLength(option);
+    }
+
+    private static boolean hasOption(String[][] options, String option) {
+        for (String[] os : options) {
+            if (os[0].equals(option)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ClassSelector selector(String[][] options, UsageManifest usage) {
+        ClassSelector selector = new ClassSelector();
+        selector.setReachableOnly(hasOption(options, REACHABLE_ONLY_OPTION));
+        selector.setUsage(usage);
+        for (String[] os : options) {
+            if (os[0].equals(INCLUDE_PACKAGES_OPTION)) {
+                selector.setIncludedPackages(os[1]);
+            } else if (os[0].equals(EXCLUDE_PACKAGES_OPTION)) {
+                selector.setExcludedPackages(os[1]);
+            }
+        }
+        return selector;
+    }
+
+    private static ClassDocumentation documentation(DocumentationInheritance inheritance,
+            UsageManifest usage, ClassDoc classDoc) {
+        ClassDocumentation cd = inheritance != null
+                ? inheritance.resolve(classDoc)
+                : ClassDocumentation.fromClassDoc(classDoc);
+        if (usage != null) {
+            // Inherited documentation is shared, only the written copy is pruned.
+            cd = cd.withMembers(usage.members(UsageManifest.binaryName(classDoc)));
+        }
+        return cd;
+    }
+
+    private static UsageManifest readUsageManifest(RootDoc root) {
+        for (String[] os : root.options()) {
+            if (os[0].equals(USAGE_MANIFEST_OPTION)) {
+                try {
+                    UsageManifest usage = UsageManifest.read(Paths.get(os[1]));
+                    if (usage == null) {
+                        root.printNotice("Usage manifest " + os[1] + " not found, documenting all classes");
+                    }
+                    return usage;
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    throw new DocletAbortException("Error reading usage manifest: " + e);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int parallelThreads(String[][] options) {
+        for (String[] os : options) {
+            if (os[0].equals(PARALLEL_OPTION)) {
+                try {
+                    return Integer.parseInt(os[1]);
+                } catch (NumberFormatException e) {
+                    throw new DocletAbortException("Invalid number of threads: " + os[1]);
+                }
+            }
+        }
+        return 1;
+    }
+
     private static String destinationDir(String[][] options) {
         for (String[] os : options) {
             String opt = os[0].toLowerCase();
@@ -60,20 +221,34 @@ public class ExtractDocumentationAsJsonDoclet extends Standard {
         return "../generated-javadoc-json";
     }
 
-    private static void writeToFile(String destinationDir, ObjectMapper mapper,
-            ClassDoc classDoc, ClassDocumentation cd) {
+    private static void writeToFile(Path path, ObjectMapper mapper, ClassDocumentation cd) {
         try {
-            Path path = path(destinationDir, classDoc);
-            try (BufferedWriter writer = Files.newBufferedWriter(path, UTF_8)) {
-                mapper.writerFor(ClassDocumentation.class).writeValue(writer, cd);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
             }
+            writeIfChanged(path, serialize(mapper, cd));
         } catch (IOException e) {
             e.printStackTrace();
             throw new DocletAbortException("Error writing file: " + e);
         }
     }
 
-    private static Path path(String destinationDir, ClassDoc classDoc) throws IOException {
+    private static byte[] serialize(ObjectMapper mapper, ClassDocumentation cd) {
+        try {
+            return mapper.writerFor(ClassDocumentation.class).writeValueAsBytes(cd);
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new DocletAbortException("Error serializing class: " + e);
+        }
+    }
+
+    private static String indexKey(ClassDoc classDoc) {
+        String packageName = classDoc.containingPackage().name();
+        String filename = classDoc.name() + ".json";
+        return packageName.isEmpty() ? filename : packageName.replace(".", "/") + "/" + filename;
+    }
+
+    private static Path path(String destinationDir, ClassDoc classDoc) {
         String packageName = classDoc.containingPackage().name();
         String packageDir = packageName.replace(".", File.separator);
         Path packagePath = Paths.get(packageDir);
@@ -85,18 +260,23 @@ public class ExtractDocumentationAsJsonDoclet extends Standard {
             path = packagePath;
         }
 
-        Files.createDirectories(path);
-
         return path.resolve(classDoc.name() + ".json");
     }
 
-    private static ObjectMapper createObjectMapper() {
+    /**
+     * @param compact whether to write single letter keys and leave out empty values
+     */
+    private static ObjectMapper createObjectMapper(boolean compact) {
         ObjectMapper mapper = new ObjectMapper();
         mapper.setVisibility(mapper.getSerializationConfig().getDefaultVisibilityChecker()
                 .withFieldVisibility(JsonAutoDetect.Visibility.ANY)
                 .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
                 .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
                 .withCreatorVisibility(JsonAutoDetect.Visibility.NONE));
+        if (compact) {
+            mapper.setPropertyNamingStrategy(new CompactPropertyNamingStrategy());
+            mapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
+        }
         return mapper;
     }
 }
@@ -19,7 +19,9 @@
  */
 package capital.scalable.restdocs.jsondoclet;
 
+import static capital.scalable.restdocs.jsondoclet.DocletUtils.INHERIT_DOC;
 import static capital.scalable.restdocs.jsondoclet.DocletUtils.cleanupTagName;
+import static capital.scalable.restdocs.jsondoclet.DocletUtils.inherit;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -52,4 +54,32 @@ public class MethodDocumentation {
 
         return md;
     }
+
+    MethodDocumentation copy() {
+        MethodDocumentation md = new MethodDocumentation();
+        md.comment = comment;
+        md.parameters.putAll(parameters);
+        md.tags.putAll(tags);
+        return md;
+    }
+
+    /**
+     * Fills in the comment, parameter comments and tags this method does not document itself.
+     */
+    void inheritFrom(MethodDocumentation overridden) {
+        comment = inherit(comment, overridden.comment);
+        overridden.parameters.forEach(
+                (name, text) -> parameters.put(name, inherit(parameters.get(name), text)));
+        overridden.tags.forEach((name, text) -> tags.put(name, inherit(tags.get(name), text)));
+    }
+
+    /**
+     * Removes {@code {@inheritDoc}} that could not be replaced, because none of the super types
+     * documents the method.
+     */
+    void removeInheritDoc() {
+        comment = comment.replace(INHERIT_DOC, "");
+        parameters.replaceAll((name, text) -> text.replace(INHERIT_DOC, ""));
+        tags.replaceAll((name, text) -> text.replace(INHERIT_DOC, ""));
+    }
 }
@@ -0,0 +1,122 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Json Doclet
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.jsondoclet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Serializes and writes the extracted documentation, either directly on the doclet thread
+ * or concurrently on a bounded thread pool while the doclet extracts the next classes.
+ * <p>
+ * The results are handed out in the order the classes were submitted, so that the index and
+ * the manifest don't depend on the number of threads. If the queue of the thread pool is full,
+ * the doclet thread runs the task itself instead of extracting more documentation.
+ */
+class OutputPipeline implements AutoCloseable {
+    private static final int QUEUE_SIZE_PER_THREAD = 4;
+
+    private final ExecutorService executor;
+    private final List<String> keys = new ArrayList<>();
+    private final List<Future<byte[]>> outputs = new ArrayList<>();
+
+    /**
+     * @param threads number of threads writing the files, 1 or less to write on the doclet thread
+     */
+    OutputPipeline(int threads) {
+        this.executor = threads > 1 ? newExecutor(threads) : null;
+    }
+
+    /**
+     * @param key    relative path of the class' JSON file with "/" as separator
+     * @param output serializes the documentation and optionally writes it, returns the JSON
+     *               to be added to the index or {@code null}
+     */
+    void submit(String key, Callable<byte[]> output) {
+        keys.add(key);
+        if (executor != null) {
+            outputs.add(executor.submit(output));
+        } else {
+            outputs.add(CompletableFuture.completedFuture(call(output)));
+        }
+    }
+
+    /**
+     * Waits for all outputs and passes them to the consumer in the order they were submitted.
+     */
+    void forEachOutput(BiConsumer<String, byte[]> consumer) {
+        for (int i = 0; i < keys.size(); i++) {
+            consumer.accept(keys.get(i), await(outputs.get(i)));
+        }
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static byte[] call(Callable<byte[]> output) {
+        try {
+            return output.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new DocletAbortException("Error writing file: " + e);
+        }
+    }
+
+    private static byte[] await(Future<byte[]> output) {
+        try {
+            return output.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DocletAbortException("Interrupted while writing files");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            e.printStackTrace();
+            throw new DocletAbortException("Error writing file: " + e.getCause());
+        }
+    }
+
+    private static ExecutorService newExecutor(int threads) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * QUEUE_SIZE_PER_THREAD),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "json-doclet-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+}
@@ -0,0 +1,79 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Json Doclet
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.jsondoclet;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.sun.javadoc.ClassDoc;
+
+/**
+ * Classes and members whose Javadoc Spring Auto REST Docs looked up in previous test runs, as
+ * recorded with the system property {@code org.springframework.restdocs.javadocUsageFile}.
+ * <p>
+ * Each line names a member as {@code <binary class name>#<member name>}.
+ */
+class UsageManifest {
+    private final Map<String, Set<String>> members = new HashMap<>();
+
+    /**
+     * @return the manifest or {@code null} if the file does not exist
+     */
+    static UsageManifest read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        UsageManifest manifest = new UsageManifest();
+        for (String line : Files.readAllLines(file, UTF_8)) {
+            int separator = line.lastIndexOf('#');
+            if (separator > 0) {
+                manifest.members.computeIfAbsent(line.substring(0, separator), name -> new HashSet<>())
+                        .add(line.substring(separator + 1));
+            }
+        }
+        return manifest;
+    }
+
+    boolean containsClass(String binaryName) {
+        return members.containsKey(binaryName);
+    }
+
+    Set<String> members(String binaryName) {
+        return members.getOrDefault(binaryName, Collections.<String>emptySet());
+    }
+
+    /**
+     * @return the name of the class as used by the class loader, e.g. {@code com.example.Outer$Inner}
+     */
+    static String binaryName(ClassDoc classDoc) {
+        ClassDoc containingClass = classDoc.containingClass();
+        return containingClass != null
+                ? binaryName(containingClass) + "$" + classDoc.simpleTypeName()
+                : classDoc.qualifiedName();
+    }
+}
@@ -20,11 +20,20 @@
 package capital.scalable.restdocs.jsondoclet;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
+import com.sun.tools.javadoc.Main;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.json.JSONException;
 import org.junit.Test;
@@ -34,6 +43,8 @@ public class ExtractDocumentationAsJsonDocletTest {
 
     private static final String JSON_PATH =
             "capital/scalable/restdocs/jsondoclet/DocumentedClass.json";
+    private static final String REACHABILITY_PATH = "capital/scalable/restdocs/jsondoclet/reachability/";
+    private static final String INHERITANCE_PATH = "capital/scalable/restdocs/jsondoclet/inheritance/";
 
     /**
      * The test requires that the Doclet is executed before. This is ensured by
@@ -46,5 +57,232 @@ public class ExtractDocumentationAsJsonDocletTest {
         String expected = IOUtils.toString(
                 this.getClass().getClassLoader().getResourceAsStream(JSON_PATH), UTF_8);
         JSONAssert.assertEquals(expected, generated, false);
+        assertTrue(FileUtils.readLines(new File("target/generated-javadoc-json/"
+                + JavadocManifestWriter.FILE_NAME), UTF_8).contains(JSON_PATH));
+    }
+
+    @Test
+    public void testDocumentedClassInIndex() throws IOException {
+        File destinationDir = new File("target/test/generated-javadoc-index");
+        int result = Main.execute("javadoc", getClass().getClassLoader(),
+                "-doclet", ExtractDocumentationAsJsonDoclet.class.getName(),
+                "-private",
+                "-encoding", "UTF-8",
+                "-d", destinationDir.getPath(),
+                "-javadoc-index",
+                "src/test/java/capital/scalable/restdocs/jsondoclet/DocumentedClass.java");
+        assertEquals(0, result);
+
+        assertFalse(new File(destinationDir, JSON_PATH).exists());
+        String index = FileUtils.readFileToString(
+                new File(destinationDir, JavadocIndexWriter.FILE_NAME), UTF_8);
+        assertTrue(index.contains(JSON_PATH));
+        assertTrue(index.contains("Path within location"));
+        assertEquals(Collections.singletonList(JavadocIndexWriter.FILE_NAME), FileUtils.readLines(
+                new File(destinationDir, JavadocManifestWriter.FILE_NAME), UTF_8));
+    }
+
+    @Test
+    public void testParallelRun() throws IOException {
+        File sequentialDir = new File("target/test/generated-javadoc-sequential");
+        File parallelDir = new File("target/test/generated-javadoc-parallel");
+        assertEquals(0, runDoclet(sequentialDir, "-javadoc-index"));
+        assertEquals(0, runDoclet(parallelDir, "-javadoc-index", "-parallel", "4"));
+
+        assertTrue(FileUtils.contentEquals(new File(sequentialDir, JavadocIndexWriter.FILE_NAME),
+                new File(parallelDir, JavadocIndexWriter.FILE_NAME)));
+        assertTrue(FileUtils.contentEquals(new File(sequentialDir, JavadocManifestWriter.FILE_NAME),
+                new File(parallelDir, JavadocManifestWriter.FILE_NAME)));
+    }
+
+    @Test
+    public void testIncrementalRun() throws IOException {
+        File destinationDir = new File("target/test/generated-javadoc-incremental");
+        String deletedPath = "capital/scalable/restdocs/jsondoclet/DeletedClass.json";
+        assertEquals(0, runDoclet(destinationDir));
+        File jsonFile = new File(destinationDir, JSON_PATH);
+        long lastModified = System.currentTimeMillis() - 60_000;
+        assertTrue(jsonFile.setLastModified(lastModified));
+        // pretend that a deleted class was documented by the first run
+        FileUtils.writeStringToFile(new File(destinationDir, deletedPath), "{}", UTF_8);
+        FileUtils.writeLines(new File(destinationDir, JavadocManifestWriter.FILE_NAME),
+                UTF_8.name(), Arrays.asList(JSON_PATH, deletedPath));
+
+        assertEquals(0, runDoclet(destinationDir));
+
+        assertEquals(lastModified, jsonFile.lastModified());
+        assertFalse(new File(destinationDir, deletedPath).exists());
+        assertEquals(Collections.singletonList(JSON_PATH), FileUtils.readLines(
+                new File(destinationDir, JavadocManifestWriter.FILE_NAME), UTF_8));
+    }
+
+    @Test
+    public void testRunsSharingDestinationDir() throws IOException {
+        File destinationDir = new File("target/test/generated-javadoc-shared");
+        FileUtils.deleteDirectory(destinationDir);
+
+        assertEquals(0, runDoclet(destinationDir, Collections.singletonList(
+                "src/test/resources/" + INHERITANCE_PATH + "ItemRepository.java")));
+        assertEquals(0, runDoclet(destinationDir));
+
+        assertTrue(new File(destinationDir, INHERITANCE_PATH + "ItemRepository.json").exists());
+        assertTrue(new File(destinationDir, INHERITANCE_PATH + "InMemoryItemRepository.json").exists());
+        assertTrue(new File(destinationDir, JSON_PATH).exists());
+        assertEquals(Arrays.asList(JSON_PATH,
+                INHERITANCE_PATH + "InMemoryItemRepository.json",
+                INHERITANCE_PATH + "ItemRepository.json"),
+                FileUtils.readLines(new File(destinationDir, JavadocManifestWriter.FILE_NAME), UTF_8));
+    }
+
+    @Test
+    public void testReachableOnly() throws IOException {
+        File destinationDir = new File("target/test/generated-javadoc-reachable");
+        assertEquals(0, runReachabilityDoclet(destinationDir, "-reachable-only"));
+        assertEquals(Arrays.asList(
+                REACHABILITY_PATH + "AbstractOrderController.json",
+                REACHABILITY_PATH + "BaseItem.json",
+                REACHABILITY_PATH + "CardPayment.json",
+                REACHABILITY_PATH + "InvoicePayment.json",
+                REACHABILITY_PATH + "Item.json",
+                REACHABILITY_PATH + "ItemController.json",
+                REACHABILITY_PATH + "ItemFilter.json",
+                REACHABILITY_PATH + "Order.json",
+                REACHABILITY_PATH + "OrderApi.json",
+                REACHABILITY_PATH + "OrderController.json",
+                REACHABILITY_PATH + "OrderHistory.json",
+                REACHABILITY_PATH + "OrderQuery.json",
+                REACHABILITY_PATH + "Owner.json",
+                REACHABILITY_PATH + "Payment.json",
+                REACHABILITY_PATH + "audit/Audit.json"),
+                FileUtils.readLines(new File(destinationDir, JavadocManifestWriter.FILE_NAME), UTF_8));
+        assertFalse(new File(destinationDir, REACHABILITY_PATH + "ItemService.json").exists());
+
+        File excludedDir = new File("target/test/generated-javadoc-excluded");
+        assertEquals(0, runReachabilityDoclet(excludedDir, "-reachable-only",
+                "-exclude-packages", "capital.scalable.restdocs.jsondoclet.reachability.audit"));
+        assertFalse(FileUtils.readLines(new File(excludedDir, JavadocManifestWriter.FILE_NAME), UTF_8)
+                .contains(REACHABILITY_PATH + "audit/Audit.json"));
+    }
+
+    @Test
+    public void testReachableThroughControllerSuperTypes() {
+        File destinationDir = new File("target/test/generated-javadoc-super-types");
+        assertEquals(0, runReachabilityDoclet(destinationDir, "-reachable-only"));
+        // Handler methods of the abstract base controller and the default method of the API interface
+        assertTrue(new File(destinationDir, REACHABILITY_PATH + "OrderQuery.json").exists());
+        assertTrue(new File(destinationDir, REACHABILITY_PATH + "Order.json").exists());
+        assertTrue(new File(destinationDir, REACHABILITY_PATH + "OrderHistory.json").exists());
+    }
+
+    @Test
+    public void testReachableThroughJsonSubTypes() {
+        File destinationDir = new File("target/test/generated-javadoc-sub-types");
+        assertEquals(0, runReachabilityDoclet(destinationDir, "-reachable-only"));
+        assertTrue(new File(destinationDir, REACHABILITY_PATH + "Payment.json").exists());
+        assertTrue(new File(destinationDir, REACHABILITY_PATH + "CardPayment.json").exists());
+        assertTrue(new File(destinationDir, REACHABILITY_PATH + "InvoicePayment.json").exists());
+    }
+
+    @Test
+    public void testIncludedPackages() throws IOException {
+        File destinationDir = new File("target/test/generated-javadoc-included");
+        assertEquals(0, runReachabilityDoclet(destinationDir,
+                "-include-packages", "capital.scalable.restdocs.jsondoclet.reachability.audit"));
+        assertEquals(Collections.singletonList(REACHABILITY_PATH + "audit/Audit.json"),
+                FileUtils.readLines(new File(destinationDir, JavadocManifestWriter.FILE_NAME), UTF_8));
+    }
+
+    @Test
+    public void testInheritComments() throws IOException, JSONException {
+        File destinationDir = new File("target/test/generated-javadoc-inheritance");
+        assertEquals(0, runDoclet(destinationDir, Collections.singletonList(
+                "src/test/resources/" + INHERITANCE_PATH + "ItemRepository.java"), "-inherit-comments"));
+
+        String json = FileUtils.readFileToString(
+                new File(destinationDir, INHERITANCE_PATH + "InMemoryItemRepository.json"), UTF_8);
+        JSONAssert.assertEquals("{\"comment\":\"Repository keeping the items in memory.\","
+                + "\"inheritanceResolved\":true,"
+                + "\"methods\":{"
+                + "\"find\":{\"comment\":\"Finds an item. Items are kept in memory.\","
+                + "\"parameters\":{\"id\":\"ID of the item\"},\"tags\":{\"return\":\"the item\"}},"
+                + "\"delete\":{\"comment\":\"Deletes an item.\"}}}", json, false);
+    }
+
+    @Test
+    public void testCompact() throws IOException, JSONException {
+        File destinationDir = new File("target/test/generated-javadoc-compact");
+        assertEquals(0, runDoclet(destinationDir, Collections.singletonList(
+                "src/test/resources/" + INHERITANCE_PATH + "ItemRepository.java"),
+                "-inherit-comments", "-compact"));
+
+        String json = FileUtils.readFileToString(
+                new File(destinationDir, INHERITANCE_PATH + "InMemoryItemRepository.json"), UTF_8);
+        JSONAssert.assertEquals("{\"c\":\"Repository keeping the items in memory.\","
+                + "\"i\":true,"
+                + "\"m\":{"
+                + "\"find\":{\"c\":\"Finds an item. Items are kept in memory.\","
+                + "\"p\":{\"id\":\"ID of the item\"},\"t\":{\"return\":\"the item\"}},"
+                + "\"delete\":{\"c\":\"Deletes an item.\"}}}", json, true);
+    }
+
+    @Test
+    public void testUsageManifest() throws IOException, JSONException {
+        File destinationDir = new File("target/test/generated-javadoc-usage");
+        File usageFile = new File(destinationDir, "javadoc-usage.txt");
+        FileUtils.writeLines(usageFile, UTF_8.name(), Arrays.asList(
+                "capital.scalable.restdocs.jsondoclet.inheritance.InMemoryItemRepository#find",
+                "capital.scalable.restdocs.jsondoclet.inheritance.ItemRepository#find"));
+        assertEquals(0, runDoclet(destinationDir, Arrays.asList(
+                "src/test/resources/" + INHERITANCE_PATH + "ItemRepository.java",
+                "src/test/java/" + JSON_PATH.replace(".json", ".java")),
+                "-inherit-comments", "-usage-manifest", usageFile.getPath()));
+
+        String json = FileUtils.readFileToString(
+                new File(destinationDir, INHERITANCE_PATH + "InMemoryItemRepository.json"), UTF_8);
+        JSONAssert.assertEquals("{\"comment\":\"Repository keeping the items in memory.\","
+                + "\"inheritanceResolved\":true,"
+                + "\"fields\":{},"
+                + "\"methods\":{"
+                + "\"find\":{\"comment\":\"Finds an item. Items are kept in memory.\","
+                + "\"parameters\":{\"id\":\"ID of the item\"},\"tags\":{\"return\":\"the item\"}}}}", json, true);
+        assertTrue(new File(destinationDir, INHERITANCE_PATH + "ItemRepository.json").exists());
+        assertFalse(new File(destinationDir, JSON_PATH).exists());
+    }
+
+    @Test
+    public void testMissingUsageManifest() {
+        File destinationDir = new File("target/test/generated-javadoc-usage-missing");
+        assertEquals(0, runDoclet(destinationDir, Collections.singletonList(
+                "src/test/resources/" + INHERITANCE_PATH + "ItemRepository.java"),
+                "-usage-manifest", new File(destinationDir, "javadoc-usage.txt").getPath()));
+
+        assertTrue(new File(destinationDir, INHERITANCE_PATH + "ItemRepository.json").exists());
+        assertTrue(new File(destinationDir, INHERITANCE_PATH + "InMemoryItemRepository.json").exists());
+    }
+
+    private int runReachabilityDoclet(File destinationDir, String... options) {
+        return runDoclet(destinationDir, Arrays.asList(
+                "src/test/resources/" + REACHABILITY_PATH + "ItemController.java",
+                "src/test/resources/" + REACHABILITY_PATH + "OrderController.java",
+                "src/test/resources/" + REACHABILITY_PATH + "audit/Audit.java",
+                "src/test/resources/com/fasterxml/jackson/annotation/JsonSubTypes.java",
+                "src/test/resources/org/springframework/web/bind/annotation/RestController.java"),
+                options);
+    }
+
+    private int runDoclet(File destinationDir, String... options) {
+        return runDoclet(destinationDir, Collections.singletonList(
+                "src/test/java/capital/scalable/restdocs/jsondoclet/DocumentedClass.java"), options);
+    }
+
+    private int runDoclet(File destinationDir, List<String> sources, String... options) {
+        List<String> args = new ArrayList<>(Arrays.asList(
+                "-doclet", ExtractDocumentationAsJsonDoclet.class.getName(),
+                "-private",
+                "-encoding", "UTF-8",
+                "-d", destinationDir.getPath()));
+        args.addAll(Arrays.asList(options));
+        args.addAll(sources);
+        return Main.execute("javadoc", getClass().getClassLoader(), args.toArray(new String[0]));
     }
 }
@@ -0,0 +1,57 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Json Doclet
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.jsondoclet.inheritance;
+
+/**
+ * Repository of items.
+ */
+public interface ItemRepository {
+
+    /**
+     * Finds an item.
+     *
+     * @param id ID of the item
+     * @return the item
+     */
+    String find(String id);
+
+    /**
+     * Deletes an item.
+     */
+    void delete(String id);
+}
+
+/**
+ * Repository keeping the items in memory.
+ */
+class InMemoryItemRepository implements ItemRepository {
+
+    /**
+     * {@inheritDoc} Items are kept in memory.
+     */
+    @Override
+    public String find(String id) {
+        return null;
+    }
+
+    @Override
+    public void delete(String id) {
+    }
+}
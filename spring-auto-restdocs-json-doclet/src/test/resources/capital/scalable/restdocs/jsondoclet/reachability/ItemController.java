@@ -0,0 +1,78 @@
+/*-
+ * #%L
+ * Spring Auto REST Docs Json Doclet
+ * %%
+ * Copyright (C) 2015 - 2021 Scalable Capital GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package capital.scalable.restdocs.jsondoclet.reachability;
+
+import java.util.List;
+
+import capital.scalable.restdocs.jsondoclet.reachability.audit.Audit;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller whose methods make the other classes reachable.
+ */
+@RestController
+class ItemController {
+    private ItemService itemService;
+
+    List<Item> items(ItemFilter filter) {
+        return null;
+    }
+}
+
+class ItemFilter {
+    /**
+     * Search query
+     */
+    private String query;
+}
+
+class BaseItem {
+    /**
+     * Unique ID
+     */
+    private String id;
+}
+
+class Item extends BaseItem {
+    /**
+     * Changes of the item
+     */
+    private Audit audit;
+
+    Owner getOwner() {
+        return null;
+    }
+}
+
+class Owner {
+    /**
+     * Name of the owner
+     */
+    private String name;
+}
+
+/**
+ * Not reachable from the controller.
+ */
+class ItemService {
+    Item find(String id) {
+        return null;
+    }
+}